@@ -0,0 +1,71 @@
+package org.example.quickscan;
+
+import java.util.Arrays;
+
+/**
+ * Base45 (RFC 9285)
+ * - Encodes bytes using only the 45 characters of the QR alphanumeric mode,
+ *   which packs 2 characters into 11 bits instead of the 16 that byte mode needs
+ * - Every 2 bytes become 3 characters, a trailing single byte becomes 2
+ */
+public final class Base45 {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ $%*+-./:";
+    private static final int[] VALUES = new int[128];
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            VALUES[ALPHABET.charAt(i)] = i;
+        }
+    }
+
+    private Base45() { /* no instantiation */ }
+
+    public static String encode(byte[] data) {
+        StringBuilder sb = new StringBuilder((data.length / 2) * 3 + 2);
+        int i = 0;
+        for (; i + 1 < data.length; i += 2) {
+            int n = ((data[i] & 0xFF) << 8) | (data[i + 1] & 0xFF);
+            sb.append(ALPHABET.charAt(n % 45));
+            sb.append(ALPHABET.charAt((n / 45) % 45));
+            sb.append(ALPHABET.charAt(n / (45 * 45)));
+        }
+        if (i < data.length) {
+            int n = data[i] & 0xFF;
+            sb.append(ALPHABET.charAt(n % 45));
+            sb.append(ALPHABET.charAt(n / 45));
+        }
+        return sb.toString();
+    }
+
+    /** Decodes Base45 text; throws IllegalArgumentException if it is malformed */
+    public static byte[] decode(String text) {
+        int length = text.length();
+        if (length % 3 == 1) {
+            throw new IllegalArgumentException("Invalid Base45 length: " + length);
+        }
+        byte[] out = new byte[(length / 3) * 2 + (length % 3 == 2 ? 1 : 0)];
+        int o = 0;
+        int i = 0;
+        for (; i + 2 < length; i += 3) {
+            int n = value(text, i) + value(text, i + 1) * 45 + value(text, i + 2) * 45 * 45;
+            if (n > 0xFFFF) throw new IllegalArgumentException("Invalid Base45 triplet at " + i);
+            out[o++] = (byte) (n >> 8);
+            out[o++] = (byte) n;
+        }
+        if (i < length) {
+            int n = value(text, i) + value(text, i + 1) * 45;
+            if (n > 0xFF) throw new IllegalArgumentException("Invalid Base45 pair at " + i);
+            out[o] = (byte) n;
+        }
+        return out;
+    }
+
+    private static int value(String text, int index) {
+        char c = text.charAt(index);
+        int value = c < 128 ? VALUES[c] : -1;
+        if (value < 0) throw new IllegalArgumentException("Invalid Base45 character: " + c);
+        return value;
+    }
+}
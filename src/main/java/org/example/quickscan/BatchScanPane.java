@@ -0,0 +1,267 @@
+package org.example.quickscan;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * BatchScanPane
+ * - Scans many dropped files and folders through a ScanPipeline (one thread per core)
+ * - Folders are expanded on a background thread while decoding is already under way
+ * - Results are added to a virtualized TableView in batches, ten times a second
+ * - Thumbnails are loaded in the background only for rows that are on screen
+ */
+public class BatchScanPane extends VBox {
+
+    private static final int THUMBNAIL_SIZE = 40;
+    private static final int THUMBNAIL_CACHE_SIZE = 256;
+    private static final int PREVIEW_LENGTH = 120;
+
+    private final ProgressBar progressBar;
+    private final Label progressLabel;
+    private final TableView<ScanPipeline.ScanResult> table;
+    private final ObservableList<ScanPipeline.ScanResult> rows = FXCollections.observableArrayList();
+    private final Timeline drainTimeline;
+    private final Map<Path, Image> thumbnails = new LinkedHashMap<>(THUMBNAIL_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, Image> eldest) {
+            return size() > THUMBNAIL_CACHE_SIZE;
+        }
+    };
+
+    /** State of one batch; a new drop replaces it, so late results from a cancelled batch go nowhere */
+    private record Batch(ScanPipeline pipeline, Queue<ScanPipeline.ScanResult> finished,
+                         AtomicInteger discovered, AtomicBoolean listing) { }
+
+    private Batch batch;
+    private long batchStart;
+    private int found;
+    private int failed;
+
+    /**
+     * @param onOpen called with a row's result when it is double-clicked
+     */
+    public BatchScanPane(Consumer<ScanPipeline.ScanResult> onOpen) {
+        setSpacing(10);
+        setAlignment(Pos.TOP_CENTER);
+
+        progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(250);
+        progressLabel = new Label("");
+        progressLabel.getStyleClass().add("status-label");
+
+        HBox progressBox = new HBox(15, progressBar, progressLabel);
+        progressBox.setAlignment(Pos.CENTER_LEFT);
+
+        table = new TableView<>(rows);
+        table.setPlaceholder(new Label("Drop images or folders to scan them"));
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        TableColumn<ScanPipeline.ScanResult, Path> thumbnailColumn = new TableColumn<>("");
+        thumbnailColumn.setCellValueFactory(cd -> new ReadOnlyObjectWrapper<>(cd.getValue().file()));
+        thumbnailColumn.setCellFactory(col -> new ThumbnailCell());
+        thumbnailColumn.setPrefWidth(THUMBNAIL_SIZE + 12);
+        thumbnailColumn.setSortable(false);
+
+        TableColumn<ScanPipeline.ScanResult, String> fileColumn = new TableColumn<>("File");
+        fileColumn.setCellValueFactory(cd -> new ReadOnlyObjectWrapper<>(cd.getValue().file().getFileName().toString()));
+        fileColumn.setPrefWidth(180);
+
+        TableColumn<ScanPipeline.ScanResult, String> typeColumn = new TableColumn<>("Type");
+        typeColumn.setCellValueFactory(cd -> new ReadOnlyObjectWrapper<>(typeOf(cd.getValue())));
+        typeColumn.setPrefWidth(100);
+
+        TableColumn<ScanPipeline.ScanResult, String> contentColumn = new TableColumn<>("Content");
+        contentColumn.setCellValueFactory(cd -> new ReadOnlyObjectWrapper<>(contentOf(cd.getValue())));
+        contentColumn.setPrefWidth(320);
+
+        TableColumn<ScanPipeline.ScanResult, Number> timeColumn = new TableColumn<>("ms");
+        timeColumn.setCellValueFactory(cd -> new ReadOnlyObjectWrapper<>(cd.getValue().nanos() / 1_000_000));
+        timeColumn.setPrefWidth(60);
+
+        table.getColumns().add(thumbnailColumn);
+        table.getColumns().add(fileColumn);
+        table.getColumns().add(typeColumn);
+        table.getColumns().add(contentColumn);
+        table.getColumns().add(timeColumn);
+
+        table.setRowFactory(tv -> {
+            TableRow<ScanPipeline.ScanResult> row = new TableRow<>();
+            row.setOnMouseClicked(e -> {
+                if (e.getClickCount() == 2 && !row.isEmpty()) {
+                    onOpen.accept(row.getItem());
+                }
+            });
+            return row;
+        });
+
+        getChildren().addAll(progressBox, table);
+
+        drainTimeline = new Timeline(new KeyFrame(Duration.millis(100), e -> drainResults()));
+        drainTimeline.setCycleCount(Timeline.INDEFINITE);
+    }
+
+    /** Starts scanning the given files and folders, replacing any batch still running */
+    public void scan(List<File> files) {
+        cancel();
+        rows.clear();
+        found = 0;
+        failed = 0;
+        batchStart = System.nanoTime();
+
+        Batch current = new Batch(new ScanPipeline(), new ConcurrentLinkedQueue<>(),
+                new AtomicInteger(), new AtomicBoolean(true));
+        batch = current;
+
+        List<File> roots = new ArrayList<>(files);
+        Thread lister = new Thread(() -> {
+            try {
+                for (File root : roots) {
+                    try (Stream<Path> paths = Files.walk(root.toPath())) {
+                        paths.filter(Files::isRegularFile)
+                                .filter(ScanPipeline::isImageFile)
+                                .forEach(file -> {
+                                    current.discovered().incrementAndGet();
+                                    current.pipeline().submit(file).thenAccept(result -> {
+                                        recordHistory(result);
+                                        current.finished().add(result);
+                                    });
+                                });
+                    } catch (IOException | UncheckedIOException e) {
+                        System.err.println("Error listing " + root + ": " + e.getMessage());
+                    }
+                }
+            } catch (RejectedExecutionException e) {
+                // batch was cancelled while listing
+            } finally {
+                current.listing().set(false);
+            }
+        }, "batch-lister");
+        lister.setDaemon(true);
+        lister.start();
+
+        drainTimeline.play();
+    }
+
+    /** Drops the running batch; files still queued are not decoded */
+    public void cancel() {
+        drainTimeline.stop();
+        if (batch != null) {
+            batch.pipeline().close();
+            batch = null;
+        }
+    }
+
+    /** Found codes are recorded like single scans; encrypted ones keep their ciphertext */
+    private static void recordHistory(ScanPipeline.ScanResult result) {
+        if (!result.found()) return;
+        HistoryManager.getInstance().addHistoryEntry(
+                HistoryEntry.SCANNED,
+                result.historyType(),
+                result.text(),
+                false
+        );
+    }
+
+    /** ---------- PROGRESS ---------- */
+    private void drainResults() {
+        if (batch == null) return;
+
+        List<ScanPipeline.ScanResult> results = new ArrayList<>();
+        ScanPipeline.ScanResult result;
+        while ((result = batch.finished().poll()) != null) {
+            results.add(result);
+            if (result.found()) found++;
+            if (result.failed()) failed++;
+        }
+        if (!results.isEmpty()) rows.addAll(results);
+
+        boolean listing = batch.listing().get();
+        int total = batch.discovered().get();
+        int done = rows.size();
+        boolean complete = !listing && done >= total;
+        double seconds = (System.nanoTime() - batchStart) / 1e9;
+
+        progressBar.setProgress(total == 0 ? (complete ? 1.0 : ProgressBar.INDETERMINATE_PROGRESS)
+                : (double) done / total);
+        progressLabel.setText(String.format("%,d / %,d%s scanned · %,d found · %,d failed · %.1fs · %d threads",
+                done, total, listing ? "+" : "", found, failed, seconds,
+                batch.pipeline().threadCount()));
+
+        if (complete) cancel();
+    }
+
+    /** ---------- CELLS ---------- */
+    private static String typeOf(ScanPipeline.ScanResult result) {
+        if (result.failed()) return "Error";
+        if (result.part() != null) return "Multi-QR";
+        if (!result.found()) return "No QR";
+        if (result.encrypted()) return HistoryEntry.ENCRYPTED_TYPE;
+        return result.parsed().type().label();
+    }
+
+    private static String contentOf(ScanPipeline.ScanResult result) {
+        if (result.failed()) return result.error();
+        if (result.part() != null) return result.part() + " (recorded once the sequence is complete)";
+        if (!result.found()) return "";
+        if (result.encrypted()) return "Double-click to decrypt";
+        String text = result.text().replace('\n', ' ');
+        return text.length() > PREVIEW_LENGTH ? text.substring(0, PREVIEW_LENGTH) + "…" : text;
+    }
+
+    /** Loads a small thumbnail in the background the first time its row becomes visible */
+    private Image thumbnail(Path file) {
+        return thumbnails.computeIfAbsent(file, f ->
+                new Image(f.toUri().toString(), THUMBNAIL_SIZE, THUMBNAIL_SIZE, true, false, true));
+    }
+
+    private final class ThumbnailCell extends TableCell<ScanPipeline.ScanResult, Path> {
+        private final ImageView imageView = new ImageView();
+
+        ThumbnailCell() {
+            imageView.setFitWidth(THUMBNAIL_SIZE);
+            imageView.setFitHeight(THUMBNAIL_SIZE);
+            imageView.setPreserveRatio(true);
+        }
+
+        @Override
+        protected void updateItem(Path file, boolean empty) {
+            super.updateItem(file, empty);
+            if (empty || file == null) {
+                imageView.setImage(null);
+                setGraphic(null);
+            } else {
+                imageView.setImage(thumbnail(file));
+                setGraphic(imageView);
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.example.quickscan;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Checks that RasterLuminanceSource and VectorHybridBinarizer agree bit for bit with
+ * ZXing's BufferedImageLuminanceSource and HybridBinarizer, then times both stages
+ * against ZXing on camera-sized images.
+ *
+ * Agreement is checked for the scalar and the active kernels on synthetic images
+ * (every supported image type, odd sizes, sub-images, transparency, the getRGB fallback)
+ * and on every image of a DecoderCorpusGenerator corpus, if one is given.
+ *
+ * Run: java --add-modules jdk.incubator.vector -cp ... org.example.quickscan.BinarizerBenchmark [corpusDir] [iterations]
+ */
+public final class BinarizerBenchmark {
+
+    private static final int[] IMAGE_TYPES = {
+            BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_3BYTE_BGR,
+            BufferedImage.TYPE_4BYTE_ABGR, BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_USHORT_565_RGB
+    };
+
+    private static final int[][] SIZES = {
+            {32, 32}, {40, 40}, {41, 57}, {300, 300}, {333, 250}, {1023, 767}, {1920, 1080}
+    };
+
+    private BinarizerBenchmark() { }
+
+    public static void main(String[] args) throws IOException, NotFoundException {
+        Path corpus = args.length > 0 ? Paths.get(args[0]) : null;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+        System.out.println("Active kernels: " + PixelKernels.INSTANCE.describe());
+        verify(corpus);
+        System.out.println();
+        benchmark(iterations);
+    }
+
+    /** ---------- BIT-EXACT CHECK ---------- */
+
+    private static void verify(Path corpus) throws IOException, NotFoundException {
+        Random random = new Random(7);
+        List<BufferedImage> images = new ArrayList<>();
+        for (int[] size : SIZES) {
+            BufferedImage scene = scene(size[0], size[1], random);
+            for (int type : IMAGE_TYPES) {
+                images.add(convert(scene, type));
+            }
+            // a sub-image shares its parent's array at an offset
+            if (size[0] > 100) {
+                images.add(convert(scene, BufferedImage.TYPE_INT_RGB).getSubimage(13, 7, size[0] - 29, size[1] - 11));
+                images.add(convert(scene, BufferedImage.TYPE_3BYTE_BGR).getSubimage(5, 3, size[0] - 17, size[1] - 9));
+            }
+        }
+        if (corpus != null && Files.isDirectory(corpus)) {
+            try (Stream<Path> files = Files.list(corpus)) {
+                for (Path file : files.filter(ScanPipeline::isImageFile).sorted().toList()) {
+                    BufferedImage image = ImageIO.read(file.toFile());
+                    if (image != null) images.add(image);
+                }
+            }
+        }
+
+        int mismatches = 0;
+        for (BufferedImage image : images) {
+            LuminanceSource reference = new BufferedImageLuminanceSource(image);
+            byte[] expectedLuminance = reference.getMatrix();
+            BitMatrix expectedBits = new HybridBinarizer(reference).getBlackMatrix();
+
+            for (PixelKernels kernels : List.of(PixelKernels.SCALAR, PixelKernels.INSTANCE)) {
+                LuminanceSource source = new RasterLuminanceSource(image, kernels);
+                boolean luminanceMatches = Arrays.equals(expectedLuminance, source.getMatrix());
+                boolean bitsMatch = expectedBits.equals(new VectorHybridBinarizer(source, kernels).getBlackMatrix());
+                if (!luminanceMatches || !bitsMatch) {
+                    mismatches++;
+                    System.out.printf("MISMATCH %dx%d type %d (%s): luminance %s, bits %s%n",
+                            image.getWidth(), image.getHeight(), image.getType(), kernels.describe(),
+                            luminanceMatches ? "ok" : "differs", bitsMatch ? "ok" : "differ");
+                }
+            }
+        }
+        System.out.printf("Bit-exact check: %d images x 2 kernel sets, %d mismatches%n", images.size(), mismatches);
+    }
+
+    /** A photographed-looking QR code: rotated, scaled, lit unevenly and noisy */
+    private static BufferedImage scene(int width, int height, Random random) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = new int[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int light = 150 + (60 * x) / width + (40 * y) / height + random.nextInt(9) - 4;
+                int alpha = random.nextInt(50) == 0 ? 0 : 0xFF;
+                int c = Math.max(0, Math.min(255, light));
+                pixels[y * width + x] = (alpha << 24) | (c << 16) | (Math.max(0, c - 10) << 8) | Math.max(0, c - 25);
+            }
+        }
+        image.setRGB(0, 0, width, height, pixels, 0, width);
+
+        try {
+            int side = Math.min(width, height) * 3 / 4;
+            BufferedImage code = QRCodeRenderer.render(
+                    QRCodeRenderer.encode("https://example.com/bench/" + width + "x" + height, Math.max(side, 21)),
+                    0x202020, 0xF0F0F0);
+            Graphics2D g = image.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.rotate(0.12, width / 2.0, height / 2.0);
+            g.drawImage(code, (width - side) / 2, (height - side) / 2, side, side, null);
+            g.dispose();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return image;
+    }
+
+    private static BufferedImage convert(BufferedImage source, int type) {
+        BufferedImage image = new BufferedImage(source.getWidth(), source.getHeight(), type);
+        Graphics2D g = image.createGraphics();
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return image;
+    }
+
+    /** ---------- TIMING ---------- */
+
+    private static void benchmark(int iterations) {
+        BufferedImage scene = scene(4032, 3024, new Random(11));
+        System.out.printf("Median of %d runs on a 4032x3024 image (ms)%n", iterations);
+        System.out.printf("%-12s %-12s %10s %10s %10s%n", "image type", "stage", "zxing", "scalar", "vector");
+
+        for (int type : new int[]{BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR}) {
+            BufferedImage image = convert(scene, type);
+            String name = type == BufferedImage.TYPE_INT_RGB ? "INT_RGB" : "3BYTE_BGR";
+
+            double zxingLuminance = median(iterations, () -> new BufferedImageLuminanceSource(image).getMatrix());
+            double scalarLuminance = median(iterations, () -> new RasterLuminanceSource(image, PixelKernels.SCALAR));
+            double vectorLuminance = median(iterations, () -> new RasterLuminanceSource(image, PixelKernels.INSTANCE));
+            System.out.printf("%-12s %-12s %10.2f %10.2f %10.2f%n", name, "luminance",
+                    zxingLuminance, scalarLuminance, vectorLuminance);
+
+            LuminanceSource source = new RasterLuminanceSource(image);
+            double zxingBinarize = medianBinarize(iterations, source, HybridBinarizer::new);
+            double scalarBinarize = medianBinarize(iterations, source, s -> new VectorHybridBinarizer(s, PixelKernels.SCALAR));
+            double vectorBinarize = medianBinarize(iterations, source, s -> new VectorHybridBinarizer(s, PixelKernels.INSTANCE));
+            System.out.printf("%-12s %-12s %10.2f %10.2f %10.2f%n", name, "binarize",
+                    zxingBinarize, scalarBinarize, vectorBinarize);
+            System.out.printf("%-12s %-12s %10.2f %10.2f %10.2f%n", name, "total",
+                    zxingLuminance + zxingBinarize, scalarLuminance + scalarBinarize, vectorLuminance + vectorBinarize);
+        }
+    }
+
+    private static double medianBinarize(int iterations, LuminanceSource source,
+                                         Function<LuminanceSource, Binarizer> binarizer) {
+        // the black matrix is cached per binarizer, so every run needs a new one
+        return median(iterations, () -> {
+            try {
+                return binarizer.apply(source).getBlackMatrix();
+            } catch (NotFoundException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static double median(int iterations, Supplier<Object> work) {
+        // warm up the JIT before timing
+        for (int i = 0; i < Math.max(5, iterations / 3); i++) work.get();
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            work.get();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[iterations / 2] / 1e6;
+    }
+}
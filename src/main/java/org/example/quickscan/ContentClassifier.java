@@ -0,0 +1,422 @@
+package org.example.quickscan;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ContentClassifier
+ * - Classifies and parses scanned QR text in a single pass, without regular expressions
+ * - Content with a scheme ("WIFI:", "mailto:", "BEGIN:VCARD", ...) goes straight
+ *   to the parser registered for that scheme
+ * - Everything else is classified by one scan over its characters
+ *   (number, product ID, email, phone, bare www URL, text)
+ *
+ * Shared by the scanner view, history and batch paths; further schemes
+ * (e.g. in-house product IDs) can be added with register(...).
+ */
+public final class ContentClassifier {
+
+    private static final int MAX_SCHEME_LENGTH = 16;
+    private static final ContentClassifier INSTANCE = new ContentClassifier();
+
+    private final Map<String, ContentParser> parsers = new ConcurrentHashMap<>();
+
+    private ContentClassifier() {
+        ContentParser url = ContentClassifier::parseUrl;
+        register("http", url);
+        register("https", url);
+        register("ftp", url);
+
+        register("mailto", ContentClassifier::parseMailto);
+        register("matmsg", ContentClassifier::parseMatmsg);
+        register("tel", ContentClassifier::parseTel);
+
+        ContentParser sms = ContentClassifier::parseSms;
+        register("sms", sms);
+        register("smsto", sms);
+        register("mms", sms);
+        register("mmsto", sms);
+
+        register("wifi", ContentClassifier::parseWifi);
+        register("mecard", ContentClassifier::parseMecard);
+        register("begin", ContentClassifier::parseBegin);
+        register("geo", ContentClassifier::parseGeo);
+        register("qsfile", ContentClassifier::parseFile);
+    }
+
+    public static ContentClassifier getInstance() {
+        return INSTANCE;
+    }
+
+    /** Registers (or replaces) the parser for a scheme; matching is case-insensitive */
+    public void register(String scheme, ContentParser parser) {
+        parsers.put(scheme.toLowerCase(Locale.ROOT), parser);
+    }
+
+    /** Classifies the content; never returns null */
+    public ParsedContent classify(String content) {
+        if (content == null) return ParsedContent.of(ContentType.TEXT, "");
+
+        int colon = schemeEnd(content);
+        if (colon > 0) {
+            ContentParser parser = parsers.get(content.substring(0, colon).toLowerCase(Locale.ROOT));
+            if (parser != null) {
+                ParsedContent parsed = parser.parse(content, colon + 1);
+                if (parsed != null) return parsed;
+            }
+        }
+        return classifyPlain(content);
+    }
+
+    /** Index of the ':' ending a leading scheme, or -1 */
+    private static int schemeEnd(String content) {
+        int limit = Math.min(content.length(), MAX_SCHEME_LENGTH + 1);
+        for (int i = 0; i < limit; i++) {
+            char c = content.charAt(i);
+            if (c == ':') return i;
+            boolean letter = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+            if (i == 0 ? !letter : !(letter || (c >= '0' && c <= '9') || c == '+' || c == '-' || c == '.')) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /** ---------- SCHEME-LESS CONTENT ---------- */
+    private static ParsedContent classifyPlain(String content) {
+        int length = content.length();
+        if (length == 0) return ParsedContent.of(ContentType.TEXT, content);
+
+        int digits = 0;
+        int whitespace = 0;
+        int phoneSeparators = 0;
+        int atCount = 0;
+        int at = -1;
+        int lastDot = -1;
+
+        for (int i = 0; i < length; i++) {
+            char c = content.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '@') {
+                at = i;
+                atCount++;
+            } else if (c == '.') {
+                lastDot = i;
+            } else if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                whitespace++;
+            } else if (c == '-' || c == '(' || c == ')' || c == '+') {
+                phoneSeparators++;
+            }
+        }
+
+        if (digits == length) {
+            if (isGtin(content)) {
+                return new ParsedContent(ContentType.PRODUCT_ID, content, Map.of("gtin", content));
+            }
+            return ParsedContent.of(ContentType.NUMBER, content);
+        }
+        if (atCount == 1 && whitespace == 0 && at > 0 && lastDot > at + 1 && lastDot < length - 1) {
+            return new ParsedContent(ContentType.EMAIL, content, Map.of("address", content));
+        }
+        if (content.charAt(0) == '+' && digits >= 7 && digits <= 15
+                && digits + phoneSeparators + whitespace == length) {
+            return new ParsedContent(ContentType.PHONE, content, Map.of("number", content));
+        }
+        if (whitespace == 0 && content.regionMatches(true, 0, "www.", 0, 4) && lastDot > 4) {
+            return new ParsedContent(ContentType.URL, content, Map.of("host", hostOf(content, 0)));
+        }
+        return ParsedContent.of(ContentType.TEXT, content);
+    }
+
+    /** GTIN-8/12/13/14 (EAN, UPC) with a valid check digit */
+    private static boolean isGtin(String digits) {
+        int length = digits.length();
+        if (length != 8 && length != 12 && length != 13 && length != 14) return false;
+        int sum = 0;
+        for (int i = length - 2, weight = 3; i >= 0; i--, weight = 4 - weight) {
+            sum += (digits.charAt(i) - '0') * weight;
+        }
+        return (10 - sum % 10) % 10 == digits.charAt(length - 1) - '0';
+    }
+
+    /** ---------- SCHEME PARSERS ---------- */
+    private static ParsedContent parseUrl(String content, int body) {
+        if (!content.startsWith("//", body)) return null;
+        for (int i = 0; i < content.length(); i++) {
+            if (Character.isWhitespace(content.charAt(i))) return null;
+        }
+        String host = hostOf(content, body + 2);
+        if (host.isEmpty()) return null;
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("scheme", content.substring(0, body - 1).toLowerCase(Locale.ROOT));
+        fields.put("host", host);
+        return new ParsedContent(ContentType.URL, content, fields);
+    }
+
+    private static String hostOf(String text, int start) {
+        int end = start;
+        while (end < text.length()) {
+            char c = text.charAt(end);
+            if (c == '/' || c == '?' || c == '#') break;
+            end++;
+        }
+        return text.substring(start, end);
+    }
+
+    private static ParsedContent parseMailto(String content, int body) {
+        int query = content.indexOf('?', body);
+        String address = decode(content.substring(body, query < 0 ? content.length() : query));
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("address", address);
+        if (query >= 0) {
+            Map<String, String> params = queryParams(content, query + 1);
+            putIfPresent(fields, "subject", params.get("subject"));
+            putIfPresent(fields, "body", params.get("body"));
+        }
+        return new ParsedContent(ContentType.EMAIL, content, fields);
+    }
+
+    private static ParsedContent parseMatmsg(String content, int body) {
+        Map<String, String> values = keyValues(content, body);
+        if (!values.containsKey("TO")) return null;
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("address", values.get("TO"));
+        putIfPresent(fields, "subject", values.get("SUB"));
+        putIfPresent(fields, "body", values.get("BODY"));
+        return new ParsedContent(ContentType.EMAIL, content, fields);
+    }
+
+    private static ParsedContent parseTel(String content, int body) {
+        if (!hasDigit(content, body, content.length())) return null;
+        return new ParsedContent(ContentType.PHONE, content, Map.of("number", content.substring(body)));
+    }
+
+    /** SMSTO:number:message and sms:number?body=message */
+    private static ParsedContent parseSms(String content, int body) {
+        int numberEnd = content.length();
+        String message = null;
+        int query = content.indexOf('?', body);
+        int colon = content.indexOf(':', body);
+        if (query >= 0) {
+            numberEnd = query;
+            message = queryParams(content, query + 1).get("body");
+        } else if (colon >= 0) {
+            numberEnd = colon;
+            message = content.substring(colon + 1);
+        }
+        if (!hasDigit(content, body, numberEnd)) return null;
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("number", content.substring(body, numberEnd));
+        putIfPresent(fields, "body", message);
+        return new ParsedContent(ContentType.SMS, content, fields);
+    }
+
+    /** WIFI:T:WPA;S:ssid;P:password;H:false;; */
+    private static ParsedContent parseWifi(String content, int body) {
+        Map<String, String> values = keyValues(content, body);
+        String ssid = values.get("S");
+        if (ssid == null) return null;
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("ssid", ssid);
+        putIfPresent(fields, "security", values.get("T"));
+        putIfPresent(fields, "password", values.get("P"));
+        putIfPresent(fields, "hidden", values.get("H"));
+        return new ParsedContent(ContentType.WIFI, content, fields);
+    }
+
+    /** MECARD:N:name;TEL:number;EMAIL:address;; */
+    private static ParsedContent parseMecard(String content, int body) {
+        Map<String, String> values = keyValues(content, body);
+        String name = values.get("N");
+        if (name == null) return null;
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("name", name);
+        putIfPresent(fields, "phone", values.get("TEL"));
+        putIfPresent(fields, "email", values.get("EMAIL"));
+        putIfPresent(fields, "address", values.get("ADR"));
+        putIfPresent(fields, "url", values.get("URL"));
+        putIfPresent(fields, "note", values.get("NOTE"));
+        return new ParsedContent(ContentType.MECARD, content, fields);
+    }
+
+    /** BEGIN:VCARD and BEGIN:VCALENDAR / BEGIN:VEVENT blocks */
+    private static ParsedContent parseBegin(String content, int body) {
+        int lineEnd = content.indexOf('\n', body);
+        String kind = content.substring(body, lineEnd < 0 ? content.length() : lineEnd).strip().toUpperCase(Locale.ROOT);
+        Map<String, String> properties = properties(content);
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        switch (kind) {
+            case "VCARD" -> {
+                putIfPresent(fields, "name", properties.getOrDefault("FN", properties.get("N")));
+                putIfPresent(fields, "phone", properties.get("TEL"));
+                putIfPresent(fields, "email", properties.get("EMAIL"));
+                putIfPresent(fields, "organization", properties.get("ORG"));
+                putIfPresent(fields, "address", properties.get("ADR"));
+                putIfPresent(fields, "url", properties.get("URL"));
+                return new ParsedContent(ContentType.VCARD, content, fields);
+            }
+            case "VCALENDAR", "VEVENT" -> {
+                putIfPresent(fields, "summary", properties.get("SUMMARY"));
+                putIfPresent(fields, "start", properties.get("DTSTART"));
+                putIfPresent(fields, "end", properties.get("DTEND"));
+                putIfPresent(fields, "location", properties.get("LOCATION"));
+                putIfPresent(fields, "description", properties.get("DESCRIPTION"));
+                return new ParsedContent(ContentType.CALENDAR, content, fields);
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    /** geo:lat,lon[,alt][?q=query] */
+    private static ParsedContent parseGeo(String content, int body) {
+        int query = content.indexOf('?', body);
+        String coordinates = content.substring(body, query < 0 ? content.length() : query);
+        int firstComma = coordinates.indexOf(',');
+        if (firstComma < 0) return null;
+        int secondComma = coordinates.indexOf(',', firstComma + 1);
+
+        String latitude = coordinates.substring(0, firstComma);
+        String longitude = secondComma < 0
+                ? coordinates.substring(firstComma + 1)
+                : coordinates.substring(firstComma + 1, secondComma);
+        try {
+            double lat = Double.parseDouble(latitude);
+            double lon = Double.parseDouble(longitude);
+            if (Math.abs(lat) > 90 || Math.abs(lon) > 180) return null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("latitude", latitude);
+        fields.put("longitude", longitude);
+        if (secondComma >= 0) fields.put("altitude", coordinates.substring(secondComma + 1));
+        if (query >= 0) putIfPresent(fields, "query", queryParams(content, query + 1).get("q"));
+        return new ParsedContent(ContentType.GEO, content, fields);
+    }
+
+    private static ParsedContent parseFile(String content, int body) {
+        FilePayload.File file = FilePayload.decode(content);
+        if (file == null) return null;
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("name", file.name());
+        fields.put("size", file.bytes().length + " bytes");
+        return new ParsedContent(ContentType.FILE, content, fields);
+    }
+
+    /** ---------- FIELD HELPERS ---------- */
+
+    /** Parses "K:value;K2:value;;" from start on, with backslash escapes, as used by WIFI, MECARD and MATMSG */
+    private static Map<String, String> keyValues(String text, int start) {
+        Map<String, String> values = new LinkedHashMap<>();
+        StringBuilder current = new StringBuilder();
+        String key = null;
+
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                current.append(text.charAt(++i));
+            } else if (c == ':' && key == null) {
+                key = current.toString().toUpperCase(Locale.ROOT);
+                current.setLength(0);
+            } else if (c == ';') {
+                if (key == null) break;   // ";;" terminator
+                values.putIfAbsent(key, current.toString());
+                key = null;
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (key != null) values.putIfAbsent(key, current.toString());
+        return values;
+    }
+
+    /** First value of each "NAME;params:value" line of a vCard / iCalendar block, with folded lines joined */
+    private static Map<String, String> properties(String content) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        String name = null;
+        StringBuilder value = new StringBuilder();
+        int start = 0;
+
+        while (start < content.length()) {
+            int end = content.indexOf('\n', start);
+            if (end < 0) end = content.length();
+            int lineEnd = end > start && content.charAt(end - 1) == '\r' ? end - 1 : end;
+
+            if (start < lineEnd && (content.charAt(start) == ' ' || content.charAt(start) == '\t')) {
+                if (name != null) value.append(content, start + 1, lineEnd);
+            } else {
+                if (name != null) properties.putIfAbsent(name, value.toString());
+                name = null;
+                value.setLength(0);
+
+                // both searches stop at the end of this line, so a block without colons stays linear
+                int colon = indexOf(content, ':', start, lineEnd);
+                if (colon >= 0) {
+                    int semicolon = indexOf(content, ';', start, colon);
+                    int nameEnd = semicolon >= 0 ? semicolon : colon;
+                    name = content.substring(start, nameEnd).toUpperCase(Locale.ROOT);
+                    value.append(content, colon + 1, lineEnd);
+                }
+            }
+            start = end + 1;
+        }
+        if (name != null) properties.putIfAbsent(name, value.toString());
+        return properties;
+    }
+
+    /** Parses "k=v&k2=v2" from start to the end of the text */
+    private static Map<String, String> queryParams(String query, int start) {
+        Map<String, String> params = new LinkedHashMap<>();
+        while (start <= query.length()) {
+            int end = query.indexOf('&', start);
+            if (end < 0) end = query.length();
+            int eq = indexOf(query, '=', start, end);
+            if (eq >= 0) {
+                params.putIfAbsent(query.substring(start, eq).toLowerCase(Locale.ROOT),
+                        decode(query.substring(eq + 1, end)));
+            }
+            start = end + 1;
+        }
+        return params;
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    /** Index of c in text[from, to), or -1 */
+    private static int indexOf(String text, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == c) return i;
+        }
+        return -1;
+    }
+
+    private static boolean hasDigit(String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') return true;
+        }
+        return false;
+    }
+
+    private static void putIfPresent(Map<String, String> fields, String key, String value) {
+        if (value != null && !value.isEmpty()) fields.put(key, value);
+    }
+}
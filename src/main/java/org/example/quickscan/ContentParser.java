@@ -0,0 +1,16 @@
+package org.example.quickscan;
+
+/**
+ * Parser for one URI-like scheme (the text before the first ':').
+ * Registered with ContentClassifier; returns null if the content is not
+ * valid for this scheme, so classification falls through to plain text checks.
+ */
+@FunctionalInterface
+public interface ContentParser {
+
+    /**
+     * @param content   the full scanned text
+     * @param bodyStart index of the first character after "scheme:"
+     */
+    ParsedContent parse(String content, int bodyStart);
+}
@@ -0,0 +1,31 @@
+package org.example.quickscan;
+
+/**
+ * Kinds of content recognised in scanned QR codes.
+ * The label is what gets written to the history file's Type field.
+ */
+public enum ContentType {
+    URL("URL"),
+    EMAIL("Email"),
+    PHONE("Phone"),
+    SMS("SMS"),
+    WIFI("Wi-Fi"),
+    VCARD("vCard"),
+    MECARD("MECARD"),
+    GEO("Geo"),
+    CALENDAR("Calendar"),
+    PRODUCT_ID("Product ID"),
+    NUMBER("Number"),
+    FILE("File"),
+    TEXT("Text");
+
+    private final String label;
+
+    ContentType(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+}
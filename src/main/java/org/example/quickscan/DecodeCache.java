@@ -0,0 +1,235 @@
+package org.example.quickscan;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * DecodeCache
+ * - Maps a content hash of an image file (plus decoder settings version) to its decode result
+ * - Memory tier: LRU bounded by approximate size in bytes
+ * - Disk tier: append-only log in ~/.quickscan, indexed in memory on first use
+ * - Also remembers images that contained no code, so those repeat instantly too
+ *
+ * Only the raw decoded text is stored. For ENCRYPTED: codes that is the
+ * ciphertext; decrypted plaintext never reaches this class.
+ *
+ * Record layout: key (16 bytes) | flag (1 byte) | length (4 bytes) | UTF-8 text
+ */
+public final class DecodeCache {
+
+    private static final int FILE_MAGIC = 0x51534443;               // "QSDC"
+    private static final int FILE_FORMAT = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 16 + 1 + 4;
+    private static final byte FLAG_NOT_FOUND = 0;
+    private static final byte FLAG_TEXT = 1;
+
+    private static final long MAX_MEMORY_BYTES = 8L * 1024 * 1024;
+    private static final long MAX_DISK_BYTES = 64L * 1024 * 1024;
+    private static final int ENTRY_OVERHEAD = 64;                    // rough per-entry object cost
+
+    private static DecodeCache instance;
+
+    /** 128-bit content hash */
+    public record Key(long high, long low) { }
+
+    /** A cache hit; text is null when the image is known to contain no code */
+    public record Lookup(String text) { }
+
+    private final Path diskFile;
+    private final LinkedHashMap<Key, Lookup> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private long memoryBytes;
+
+    // disk tier, guarded by diskLock
+    private final Object diskLock = new Object();
+    private Map<Key, Long> diskIndex;
+    private RandomAccessFile disk;
+
+    private DecodeCache(Path diskFile) {
+        this.diskFile = diskFile;
+    }
+
+    public static synchronized DecodeCache getInstance() {
+        if (instance == null) {
+            instance = new DecodeCache(Paths.get(System.getProperty("user.home"), ".quickscan", "decode-cache.bin"));
+        }
+        return instance;
+    }
+
+    /**
+     * Hashes the file bytes together with the settings version.
+     * SHA-256 is hardware-accelerated on current JDKs and fast next to image
+     * decoding; the first 128 bits are kept.
+     */
+    public static Key key(byte[] bytes, int settingsVersion) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(ByteBuffer.allocate(4).putInt(settingsVersion).array());
+            ByteBuffer hash = ByteBuffer.wrap(digest.digest(bytes));
+            return new Key(hash.getLong(), hash.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** Returns the cached result, or null on a miss */
+    public Lookup get(Key key) {
+        synchronized (memory) {
+            Lookup hit = memory.get(key);
+            if (hit != null) return hit;
+        }
+
+        Lookup fromDisk = readFromDisk(key);
+        if (fromDisk != null) remember(key, fromDisk);
+        return fromDisk;
+    }
+
+    /** Stores a decode result; text may be null for "no code found" */
+    public void put(Key key, String text) {
+        Lookup lookup = new Lookup(text);
+        remember(key, lookup);
+        writeToDisk(key, lookup);
+    }
+
+    /** ---------- MEMORY TIER ---------- */
+    private void remember(Key key, Lookup lookup) {
+        synchronized (memory) {
+            Lookup previous = memory.put(key, lookup);
+            if (previous != null) memoryBytes -= sizeOf(previous);
+            memoryBytes += sizeOf(lookup);
+
+            var eldest = memory.entrySet().iterator();
+            while (memoryBytes > MAX_MEMORY_BYTES && eldest.hasNext()) {
+                memoryBytes -= sizeOf(eldest.next().getValue());
+                eldest.remove();
+            }
+        }
+    }
+
+    private static long sizeOf(Lookup lookup) {
+        return ENTRY_OVERHEAD + (lookup.text() == null ? 0 : 2L * lookup.text().length());
+    }
+
+    /** ---------- DISK TIER ---------- */
+    private Lookup readFromDisk(Key key) {
+        synchronized (diskLock) {
+            try {
+                if (!openDisk()) return null;
+                Long offset = diskIndex.get(key);
+                if (offset == null) return null;
+
+                // another process may have reset the file since it was indexed
+                disk.seek(offset);
+                if (disk.readLong() != key.high() || disk.readLong() != key.low()) {
+                    diskIndex.remove(key);
+                    return null;
+                }
+                byte flag = disk.readByte();
+                int length = disk.readInt();
+                if (length < 0 || offset + RECORD_HEADER_SIZE + length > disk.length()) {
+                    diskIndex.remove(key);
+                    return null;
+                }
+                byte[] text = new byte[length];
+                disk.readFully(text);
+                return new Lookup(flag == FLAG_TEXT ? new String(text, StandardCharsets.UTF_8) : null);
+            } catch (IOException e) {
+                // a stale or truncated record would fail the same way on every lookup
+                if (diskIndex != null) diskIndex.remove(key);
+                System.err.println("Error reading decode cache: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    private void writeToDisk(Key key, Lookup lookup) {
+        byte[] text = lookup.text() == null ? new byte[0] : lookup.text().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + text.length);
+        record.putLong(key.high()).putLong(key.low())
+                .put(lookup.text() == null ? FLAG_NOT_FOUND : FLAG_TEXT)
+                .putInt(text.length)
+                .put(text);
+
+        synchronized (diskLock) {
+            try {
+                if (!openDisk() || diskIndex.containsKey(key)) return;
+                // the lock keeps appends from several QuickScan processes whole
+                FileLock lock = disk.getChannel().lock();
+                try {
+                    long offset = disk.length();
+                    if (offset + record.capacity() > MAX_DISK_BYTES) {
+                        resetDisk();
+                        offset = disk.length();
+                    }
+                    disk.seek(offset);
+                    disk.write(record.array());
+                    diskIndex.put(key, offset);
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                System.err.println("Error writing decode cache: " + e.getMessage());
+            }
+        }
+    }
+
+    /** Opens the log on first use and indexes its records; returns false if the disk tier is unavailable */
+    private boolean openDisk() throws IOException {
+        if (disk != null) return true;
+        if (diskIndex != null) return false;   // an earlier open failed
+        diskIndex = new HashMap<>();
+
+        Files.createDirectories(diskFile.getParent());
+        disk = new RandomAccessFile(diskFile.toFile(), "rw");
+
+        FileLock lock = disk.getChannel().lock();
+        try {
+            indexDisk();
+        } finally {
+            lock.release();
+        }
+        return true;
+    }
+
+    private void indexDisk() throws IOException {
+        if (disk.length() < HEADER_SIZE || disk.readInt() != FILE_MAGIC || disk.readInt() != FILE_FORMAT) {
+            resetDisk();
+            return;
+        }
+
+        long length = disk.length();
+        long offset = HEADER_SIZE;
+        while (offset + RECORD_HEADER_SIZE <= length) {
+            disk.seek(offset);
+            Key key = new Key(disk.readLong(), disk.readLong());
+            disk.readByte();
+            int textLength = disk.readInt();
+            long next = offset + RECORD_HEADER_SIZE + textLength;
+            if (textLength < 0 || next > length) break;
+            diskIndex.put(key, offset);
+            offset = next;
+        }
+        // drop a record cut short by a crash
+        if (offset < length) disk.setLength(offset);
+    }
+
+    /** Starts an empty log; used for new, foreign-format or full cache files */
+    private void resetDisk() throws IOException {
+        disk.setLength(0);
+        disk.seek(0);
+        disk.writeInt(FILE_MAGIC);
+        disk.writeInt(FILE_FORMAT);
+        diskIndex.clear();
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.quickscan;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs the scanner's decode configuration (QRDecoder.decode, without the cache)
+ * over a corpus made by DecoderCorpusGenerator and reports, per degradation and level,
+ * the success rate and p50 / p99 decode latency.
+ *
+ * Only decoding is timed; reading the image file is not. A decode counts as a
+ * success only if the text matches the expected payload exactly.
+ *
+ * Run: java -cp ... org.example.quickscan.DecoderBenchmark [corpusDir] [repeats]
+ */
+public final class DecoderBenchmark {
+
+    /** One manifest line with its loaded image */
+    private record Sample(String file, String degradation, int level, String expected, BufferedImage image) { }
+
+    /** Aggregated numbers for one degradation level */
+    private record Row(String degradation, int level, int total, int decoded, double p50Millis, double p99Millis) { }
+
+    private DecoderBenchmark() { }
+
+    public static void main(String[] args) throws IOException {
+        Path corpus = Paths.get(args.length > 0 ? args[0] : "qr-corpus");
+        int repeats = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        List<Sample> samples = load(corpus);
+        System.out.printf("%,d images from %s, %d timed decodes each%n%n", samples.size(), corpus, repeats);
+
+        // warm up the JIT so the first degradation does not pay for it
+        for (int i = 0; i < Math.min(samples.size(), 200); i++) {
+            QRDecoder.decode(samples.get(i).image());
+        }
+
+        List<Row> rows = run(samples, repeats);
+        print(rows);
+    }
+
+    static List<Sample> load(Path corpus) throws IOException {
+        List<String> lines = Files.readAllLines(corpus.resolve(DecoderCorpusGenerator.MANIFEST), StandardCharsets.UTF_8);
+        List<Sample> samples = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            String[] parts = line.split(",", 5);
+            String expected = new String(Base64.getDecoder().decode(parts[4]), StandardCharsets.UTF_8);
+            BufferedImage image = ImageIO.read(corpus.resolve(parts[0]).toFile());
+            samples.add(new Sample(parts[0], parts[1], Integer.parseInt(parts[2]), expected, image));
+        }
+        return samples;
+    }
+
+    private static List<Row> run(List<Sample> samples, int repeats) {
+        Map<String, List<Sample>> groups = new TreeMap<>();
+        for (Sample sample : samples) {
+            groups.computeIfAbsent(sample.degradation() + "#" + sample.level(), k -> new ArrayList<>()).add(sample);
+        }
+
+        List<Row> rows = new ArrayList<>();
+        for (List<Sample> group : groups.values()) {
+            long[] nanos = new long[group.size() * repeats];
+            int n = 0;
+            int decoded = 0;
+            for (Sample sample : group) {
+                String text = null;
+                for (int r = 0; r < repeats; r++) {
+                    long start = System.nanoTime();
+                    text = QRDecoder.decode(sample.image());
+                    nanos[n++] = System.nanoTime() - start;
+                }
+                if (sample.expected().equals(text)) decoded++;
+            }
+            Arrays.sort(nanos);
+            Sample first = group.get(0);
+            rows.add(new Row(first.degradation(), first.level(), group.size(), decoded,
+                    percentile(nanos, 0.50) / 1e6, percentile(nanos, 0.99) / 1e6));
+        }
+        rows.sort((a, b) -> {
+            int byDegradation = Integer.compare(
+                    ImageDegradation.valueOf(a.degradation()).ordinal(), ImageDegradation.valueOf(b.degradation()).ordinal());
+            return byDegradation != 0 ? byDegradation : Integer.compare(a.level(), b.level());
+        });
+        return rows;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    private static void print(List<Row> rows) {
+        System.out.printf("%-14s %5s %7s %9s %9s %9s%n", "degradation", "level", "images", "success", "p50 ms", "p99 ms");
+        int total = 0;
+        int decoded = 0;
+        for (Row row : rows) {
+            System.out.printf("%-14s %5d %7d %8.1f%% %9.2f %9.2f%n",
+                    row.degradation().toLowerCase(), row.level(), row.total(),
+                    100.0 * row.decoded() / row.total(), row.p50Millis(), row.p99Millis());
+            total += row.total();
+            decoded += row.decoded();
+        }
+        System.out.printf("%noverall: %d / %d decoded (%.1f%%)%n", decoded, total, 100.0 * decoded / Math.max(1, total));
+    }
+}
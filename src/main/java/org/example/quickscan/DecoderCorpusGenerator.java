@@ -0,0 +1,97 @@
+package org.example.quickscan;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a synthetic corpus of degraded QR images for DecoderBenchmark.
+ * Codes are produced through QRCodeRenderer (the generator view's QRCodeWriter path),
+ * in several foreground/background color pairs and including ENCRYPTED: payloads,
+ * then run through every ImageDegradation at every level.
+ *
+ * Writes images plus manifest.csv: file,degradation,level,colors,expected (Base64 of the payload).
+ *
+ * Run: java -cp ... org.example.quickscan.DecoderCorpusGenerator [outDir] [seed]
+ */
+public final class DecoderCorpusGenerator {
+
+    public static final String MANIFEST = "manifest.csv";
+    static final String ENCRYPTION_PASSWORD = "corpus-password";
+
+    /** Foreground / background pairs as picked with the generator's color pickers */
+    private record ColorPair(String name, int foreground, int background) { }
+
+    private static final ColorPair[] COLORS = {
+            new ColorPair("black-white", 0x000000, 0xFFFFFF),
+            new ColorPair("navy-cream", 0x1A237E, 0xFFF8E1),
+            new ColorPair("darkred-lightyellow", 0x8B0000, 0xFFFF99),
+            new ColorPair("green-white", 0x1B5E20, 0xFFFFFF),
+            new ColorPair("teal-lightblue", 0x00695C, 0xB3E5FC)
+    };
+
+    private static final String[] PAYLOADS = {
+            "https://example.com/products/12345?ref=qr",
+            "WIFI:T:WPA;S:Office Network;P:correct horse battery staple;H:false;;",
+            "BEGIN:VCARD\nVERSION:3.0\nFN:John Doe\nTEL:+14155550123\nEMAIL:john@example.com\nEND:VCARD",
+            "Short note",
+            "4006381333931"
+    };
+
+    private DecoderCorpusGenerator() { }
+
+    public static void main(String[] args) throws Exception {
+        Path outDir = Paths.get(args.length > 0 ? args[0] : "qr-corpus");
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        Files.createDirectories(outDir);
+
+        Random random = new Random(seed);
+        List<String> payloads = new ArrayList<>(List.of(PAYLOADS));
+        for (String payload : PAYLOADS) {
+            if (payload.length() < 80) {
+                payloads.add("ENCRYPTED:" + EncryptionUtil.encrypt(payload, ENCRYPTION_PASSWORD));
+            }
+        }
+
+        int count = 0;
+        try (BufferedWriter manifest = Files.newBufferedWriter(outDir.resolve(MANIFEST), StandardCharsets.UTF_8)) {
+            manifest.write("file,degradation,level,colors,expected");
+            manifest.newLine();
+
+            for (int p = 0; p < payloads.size(); p++) {
+                String payload = payloads.get(p);
+                String expected = Base64.getEncoder().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+
+                for (ColorPair colors : COLORS) {
+                    BufferedImage clean = QRCodeRenderer.render(
+                            QRCodeRenderer.encode(payload, QRCodeRenderer.SIZE), colors.foreground(), colors.background());
+
+                    for (ImageDegradation degradation : ImageDegradation.values()) {
+                        int maxLevel = degradation == ImageDegradation.NONE ? 0 : ImageDegradation.MAX_LEVEL;
+                        int firstLevel = degradation == ImageDegradation.NONE ? 0 : 1;
+                        for (int level = firstLevel; level <= maxLevel; level++) {
+                            String name = String.format("p%02d_%s_%s_%d.%s", p, colors.name(),
+                                    degradation.name().toLowerCase(), level, degradation.extension());
+                            byte[] bytes = degradation.encode(clean, level, colors.background(), random);
+                            Files.write(outDir.resolve(name), bytes);
+
+                            manifest.write(String.join(",", name, degradation.name(), String.valueOf(level),
+                                    colors.name(), expected));
+                            manifest.newLine();
+                            count++;
+                        }
+                    }
+                }
+            }
+        }
+        System.out.printf("Wrote %,d images to %s%n", count, outDir.toAbsolutePath());
+    }
+}
@@ -0,0 +1,272 @@
+package org.example.quickscan;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Command line for distributed batch scans (see ScanJob and ScanJobWorker).
+ *
+ *   init   <jobDir> <imageRoot> [chunkSize]     split the images under imageRoot into chunks
+ *   worker <jobDir> [--id ID] [--threads N] [--lease-seconds S]
+ *                                               work until every chunk is done; start one per JVM or machine
+ *   merge  <jobDir> <historyFile>               append finished chunks to a history file (repeatable)
+ *   report <jobDir>                             progress, leases and per-worker throughput
+ *   bench  <imageRoot> <maxWorkers> [chunkSize] [threadsPerWorker]
+ *                                               runs 1..maxWorkers worker JVMs on this machine and
+ *                                               reports throughput and scaling per added worker
+ *
+ * Run: java --add-modules jdk.incubator.vector -cp ... org.example.quickscan.DistributedScan <command> ...
+ */
+public final class DistributedScan {
+
+    private static final int DEFAULT_CHUNK_SIZE = 50;
+
+    /** Throughput of one benchmark run */
+    private record BenchRow(int workers, int files, int found, long jobMillis, long wallMillis) {
+
+        double filesPerSecond() {
+            return files * 1000.0 / Math.max(1, jobMillis);
+        }
+    }
+
+    private DistributedScan() { }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            usage();
+            return;
+        }
+        Path path = Paths.get(args[1]);
+        switch (args[0]) {
+            case "init" -> init(path, Paths.get(argument(args, 2)),
+                    args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_CHUNK_SIZE);
+            case "worker" -> worker(path, args);
+            case "merge" -> merge(path, Paths.get(argument(args, 2)));
+            case "report" -> report(ScanJob.open(path));
+            case "bench" -> bench(path, Integer.parseInt(argument(args, 2)),
+                    args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_CHUNK_SIZE,
+                    args.length > 4 ? Integer.parseInt(args[4]) : 1);
+            default -> usage();
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: DistributedScan init <jobDir> <imageRoot> [chunkSize]");
+        System.err.println("       DistributedScan worker <jobDir> [--id ID] [--threads N] [--lease-seconds S]");
+        System.err.println("       DistributedScan merge <jobDir> <historyFile>");
+        System.err.println("       DistributedScan report <jobDir>");
+        System.err.println("       DistributedScan bench <imageRoot> <maxWorkers> [chunkSize] [threadsPerWorker]");
+        System.exit(2);
+    }
+
+    private static String argument(String[] args, int index) {
+        if (index >= args.length) usage();
+        return args[index];
+    }
+
+    /** ---------- COMMANDS ---------- */
+
+    private static void init(Path jobDir, Path imageRoot, int chunkSize) throws IOException {
+        ScanJob job = ScanJob.create(jobDir, imageRoot, chunkSize);
+        System.out.printf("Job %s: %,d images in %,d chunks of %d%n",
+                job.directory(), job.fileCount(), job.chunkIds().size(), chunkSize);
+    }
+
+    private static void worker(Path jobDir, String[] args) throws IOException, InterruptedException {
+        String id = defaultWorkerId();
+        int threads = Runtime.getRuntime().availableProcessors();
+        long leaseMillis = ScanJobWorker.DEFAULT_LEASE_MS;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--id" -> id = argument(args, ++i);
+                case "--threads" -> threads = Integer.parseInt(argument(args, ++i));
+                case "--lease-seconds" -> leaseMillis = (long) (Double.parseDouble(argument(args, ++i)) * 1000);
+                default -> usage();
+            }
+        }
+
+        ScanJob job = ScanJob.open(jobDir);
+        System.out.printf("Worker %s: %d decode threads, %,d ms leases, kernels: %s%n",
+                id, threads, leaseMillis, PixelKernels.INSTANCE.describe());
+        try (ScanJobWorker worker = new ScanJobWorker(job, id, threads, leaseMillis)) {
+            ScanJobWorker.Summary summary = worker.run();
+            System.out.printf("Worker %s done: %d chunks, %,d files, %,d codes, %,d errors in %,d ms%n", id,
+                    summary.chunks(), summary.files(), summary.found(), summary.failed(), summary.millis());
+        }
+    }
+
+    /** host:pid, unique per JVM and readable in reports */
+    private static String defaultWorkerId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            host = "localhost";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+
+    private static void merge(Path jobDir, Path historyFile) throws IOException {
+        ScanJob job = ScanJob.open(jobDir);
+        HistoryManager history = HistoryManager.getInstance();
+        history.setHistoryFilePath(historyFile);
+        int merged = job.mergeInto(history);
+        int done = (int) job.chunkIds().stream().filter(job::isDone).count();
+        System.out.printf("Merged %d chunks into %s (%d of %d chunks done, %d merged in total)%n",
+                merged, history.getHistoryFilePath(), done, job.chunkIds().size(), job.mergedChunks().size());
+    }
+
+    private static void report(ScanJob job) throws IOException {
+        List<ScanJob.ChunkStats> finished = new ArrayList<>();
+        List<String> leased = new ArrayList<>();
+        int pending = 0;
+        long now = System.currentTimeMillis();
+        for (String chunk : job.chunkIds()) {
+            ScanJob.ChunkStats stats = job.readStats(chunk);
+            if (stats != null) {
+                finished.add(stats);
+                continue;
+            }
+            ScanJob.Lease lease = job.readLease(chunk, ScanJobWorker.DEFAULT_LEASE_MS);
+            if (lease == null) {
+                pending++;
+            } else {
+                leased.add(String.format("  %s  %-24s %s", chunk, lease.worker(), lease.expired(now)
+                        ? "expired " + (now - lease.expiresAt()) / 1000 + " s ago"
+                        : "expires in " + (lease.expiresAt() - now) / 1000 + " s"));
+            }
+        }
+
+        Set<String> merged = job.mergedChunks();
+        System.out.printf("Job %s: %,d images from %s%n", job.directory(), job.fileCount(), job.imageRoot());
+        System.out.printf("Chunks: %d done (%d merged), %d leased, %d waiting%n",
+                finished.size(), merged.size(), leased.size(), pending);
+        leased.forEach(System.out::println);
+        if (finished.isEmpty()) return;
+
+        // per worker: chunks, files and the time from its first chunk start to its last chunk finish
+        Map<String, long[]> workers = new TreeMap<>();
+        long firstStart = Long.MAX_VALUE;
+        long lastFinish = 0;
+        int files = 0;
+        int found = 0;
+        int failed = 0;
+        for (ScanJob.ChunkStats stats : finished) {
+            long[] w = workers.computeIfAbsent(stats.worker(), k -> new long[]{0, 0, 0, Long.MAX_VALUE, 0});
+            w[0]++;
+            w[1] += stats.files();
+            w[2] += stats.found();
+            w[3] = Math.min(w[3], stats.startMillis());
+            w[4] = Math.max(w[4], stats.finishMillis());
+            firstStart = Math.min(firstStart, stats.startMillis());
+            lastFinish = Math.max(lastFinish, stats.finishMillis());
+            files += stats.files();
+            found += stats.found();
+            failed += stats.failed();
+        }
+
+        System.out.println();
+        System.out.printf("%-24s %7s %8s %8s %10s %10s%n", "worker", "chunks", "files", "codes", "seconds", "files/s");
+        for (Map.Entry<String, long[]> entry : workers.entrySet()) {
+            long[] w = entry.getValue();
+            double seconds = Math.max(1, w[4] - w[3]) / 1000.0;
+            System.out.printf("%-24s %7d %,8d %,8d %10.1f %10.1f%n",
+                    entry.getKey(), w[0], w[1], w[2], seconds, w[1] / seconds);
+        }
+        double seconds = Math.max(1, lastFinish - firstStart) / 1000.0;
+        System.out.printf("%-24s %7d %,8d %,8d %10.1f %10.1f%n",
+                "all", finished.size(), files, found, seconds, files / seconds);
+        if (failed > 0) System.out.printf("%,d images could not be read%n", failed);
+    }
+
+    /** ---------- SCALING BENCHMARK ---------- */
+
+    /**
+     * Scans imageRoot once per worker count, each time with a fresh job and a fresh
+     * decode cache, in separate JVMs started the same way as this one.
+     * Throughput is measured from the first chunk start to the last chunk finish,
+     * so JVM startup is left out; the wall time including it is shown too.
+     */
+    private static void bench(Path imageRoot, int maxWorkers, int chunkSize, int threads)
+            throws IOException, InterruptedException {
+        Path benchDir = Files.createTempDirectory("quickscan-bench-");
+        System.out.printf("%d CPUs, %d decode thread(s) per worker, chunks of %d, work files in %s%n%n",
+                Runtime.getRuntime().availableProcessors(), threads, chunkSize, benchDir);
+
+        List<BenchRow> rows = new ArrayList<>();
+        for (int workers = 1; workers <= maxWorkers; workers++) {
+            Path runDir = benchDir.resolve("workers-" + workers);
+            ScanJob job = ScanJob.create(runDir.resolve("job"), imageRoot, chunkSize);
+
+            long wallStart = System.currentTimeMillis();
+            List<Process> processes = new ArrayList<>();
+            for (int i = 1; i <= workers; i++) {
+                processes.add(new ProcessBuilder(workerCommand(runDir, job, "w" + i, threads))
+                        .redirectErrorStream(true)
+                        .redirectOutput(runDir.resolve("w" + i + ".log").toFile())
+                        .start());
+            }
+            for (int i = 0; i < processes.size(); i++) {
+                int exit = processes.get(i).waitFor();
+                if (exit != 0) {
+                    throw new IOException("Worker w" + (i + 1) + " exited with " + exit
+                            + ", see " + runDir.resolve("w" + (i + 1) + ".log"));
+                }
+            }
+            long wallMillis = System.currentTimeMillis() - wallStart;
+
+            long firstStart = Long.MAX_VALUE;
+            long lastFinish = 0;
+            int files = 0;
+            int found = 0;
+            for (String chunk : job.chunkIds()) {
+                ScanJob.ChunkStats stats = job.readStats(chunk);
+                firstStart = Math.min(firstStart, stats.startMillis());
+                lastFinish = Math.max(lastFinish, stats.finishMillis());
+                files += stats.files();
+                found += stats.found();
+            }
+            rows.add(new BenchRow(workers, files, found, lastFinish - firstStart, wallMillis));
+        }
+
+        double base = rows.get(0).filesPerSecond();
+        System.out.printf("%8s %8s %8s %10s %10s %10s %9s %11s%n",
+                "workers", "files", "codes", "scan ms", "wall ms", "files/s", "speedup", "efficiency");
+        for (BenchRow row : rows) {
+            double speedup = row.filesPerSecond() / base;
+            System.out.printf("%8d %,8d %,8d %,10d %,10d %10.1f %8.2fx %10.0f%%%n",
+                    row.workers(), row.files(), row.found(), row.jobMillis(), row.wallMillis(),
+                    row.filesPerSecond(), speedup, 100 * speedup / row.workers());
+        }
+    }
+
+    /** The java command of this JVM, running a worker with its own user.home (and so its own cold DecodeCache) */
+    private static List<String> workerCommand(Path runDir, ScanJob job, String id, int threads) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command()
+                .orElse(Paths.get(System.getProperty("java.home"), "bin", "java").toString()));
+        // keeps the Vector API kernels and any -Dquickscan.* switches of this JVM
+        for (String option : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (option.startsWith("-Dquickscan.") || option.startsWith("-Xmx")) command.add(option);
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            command.add("--add-modules");
+            command.add("jdk.incubator.vector");
+        }
+        command.add("-Duser.home=" + runDir.resolve("home-" + id));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(DistributedScan.class.getName());
+        command.addAll(List.of("worker", job.directory().toString(), "--id", id, "--threads", Integer.toString(threads)));
+        return command;
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.quickscan;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compares the generator's old PNG export (a 300px 24-bit image through ImageIO) with
+ * QRImageExporter's 1-bit PNG written from the module matrix, at several deflate levels.
+ *
+ * Every exported PNG is first read back with ImageIO and checked pixel by pixel against
+ * the modules, then decoded with QRDecoder.
+ *
+ * Run: java -cp ... org.example.quickscan.ExportBenchmark [iterations]
+ */
+public final class ExportBenchmark {
+
+    private record Case(String name, String payload, int foreground, int background) { }
+
+    private static final int[] DEFLATE_LEVELS = {1, 6, 9};
+
+    private ExportBenchmark() { }
+
+    public static void main(String[] args) throws IOException, WriterException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        String longText = "x".repeat(1800);
+        Case[] cases = {
+                new Case("url", "https://example.com/products/12345?ref=qr", 0x000000, 0xFFFFFF),
+                new Case("wifi-colored", "WIFI:T:WPA;S:Office Network;P:correct horse battery staple;H:false;;",
+                        0x1A237E, 0xFFF8E1),
+                new Case("1.8k-text", longText, 0x000000, 0xFFFFFF)
+        };
+
+        System.out.printf("Median of %d runs%n", iterations);
+        System.out.printf("%-14s %-12s %10s %10s%n", "case", "export", "bytes", "ms");
+        for (Case c : cases) {
+            BitMatrix modules = QRCodeRenderer.modules(c.payload());
+            int scale = QRImageExporter.scaleFor(modules);
+
+            BufferedImage old = QRCodeRenderer.render(
+                    QRCodeRenderer.encode(c.payload(), QRCodeRenderer.SIZE), c.foreground(), c.background());
+            byte[] oldPng = imageIoPng(old);
+            double oldMillis = median(iterations, () -> imageIoPng(old));
+            System.out.printf("%-14s %-12s %,10d %10.3f%n", c.name(), "ImageIO 24b", oldPng.length, oldMillis);
+
+            for (int level : DEFLATE_LEVELS) {
+                byte[] png = QRImageExporter.toPng(modules, scale, c.foreground(), c.background(), level);
+                check(png, modules, scale, c);
+                double millis = median(iterations,
+                        () -> QRImageExporter.toPng(modules, scale, c.foreground(), c.background(), level));
+                System.out.printf("%-14s %-12s %,10d %10.3f%n", c.name(), "1-bit L" + level, png.length, millis);
+            }
+        }
+    }
+
+    /** Reads the PNG back, compares every pixel with the modules, and decodes it */
+    private static void check(byte[] png, BitMatrix modules, int scale, Case c) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image.getWidth() != modules.getWidth() * scale || image.getHeight() != modules.getHeight() * scale) {
+            throw new IllegalStateException(c.name() + ": wrong size " + image.getWidth() + "x" + image.getHeight());
+        }
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int expected = modules.get(x / scale, y / scale) ? c.foreground() : c.background();
+                if ((image.getRGB(x, y) & 0xFFFFFF) != expected) {
+                    throw new IllegalStateException(c.name() + ": pixel mismatch at " + x + "," + y);
+                }
+            }
+        }
+        if (!c.payload().equals(QRDecoder.decode(image))) {
+            throw new IllegalStateException(c.name() + ": exported PNG does not decode");
+        }
+    }
+
+    private static byte[] imageIoPng(BufferedImage image) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static double median(int iterations, Runnable work) {
+        for (int i = 0; i < Math.max(20, iterations / 4); i++) work.run();
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            work.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[iterations / 2] / 1e6;
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.quickscan;
+
+import java.util.Base64;
+
+/**
+ * FilePayload
+ * - Carries a small file inside QR text: QSFILE:<name>:<base64 bytes>
+ * - Usually too large for one symbol, so the generator sends it as a StructuredAppend sequence
+ */
+public final class FilePayload {
+
+    public static final String PREFIX = "QSFILE:";
+
+    /** A decoded file */
+    public record File(String name, byte[] bytes) { }
+
+    private FilePayload() { /* no instantiation */ }
+
+    public static String encode(String name, byte[] bytes) {
+        // ':' cannot appear in the Base64 part, so only the name needs cleaning
+        String safeName = name.replace(':', '_');
+        return PREFIX + safeName + ":" + Base64.getEncoder().encodeToString(bytes);
+    }
+
+    /** Decodes a QSFILE payload, or returns null if the text is not one */
+    public static File decode(String text) {
+        if (text == null || !text.startsWith(PREFIX)) return null;
+        int separator = text.lastIndexOf(':');
+        if (separator < PREFIX.length()) return null;
+        try {
+            byte[] bytes = Base64.getDecoder().decode(text.substring(separator + 1));
+            return new File(text.substring(PREFIX.length(), separator), bytes);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.quickscan;
+
+import java.util.List;
+
+/**
+ * One parsed line of the history file.
+ * Line format (written by HistoryManager):
+ * [Action] (Encrypted) | Type: type | Content: content | Date: yyyy-MM-dd HH:mm
+ *
+ * "(Encrypted)" means the code was encrypted and the content is the decrypted plaintext.
+ * Codes recorded without a password (batch, watch folder, distributed scans) keep their
+ * ENCRYPTED: ciphertext as content, with Type: Encrypted and no "(Encrypted)" flag.
+ */
+public record HistoryEntry(String action, boolean encrypted, String type, String content, String date) {
+
+    public static final String SCANNED = "Scanned";
+    public static final String SCANNED_DECRYPTED = "Scanned (Decrypted)";
+
+    /** Type of entries whose content is still the ENCRYPTED: ciphertext */
+    public static final String ENCRYPTED_TYPE = "Encrypted";
+
+    /** Every action QuickScan records; HistoryView offers these as filters */
+    public static final List<String> ACTIONS = List.of(SCANNED, SCANNED_DECRYPTED,
+            WatchFolderService.HISTORY_ACTION, ScanJobWorker.HISTORY_ACTION);
+
+    private static final String ENCRYPTED_SUFFIX = " (Encrypted)";
+    private static final String TYPE_SEPARATOR = " | Type: ";
+    private static final String CONTENT_SEPARATOR = " | Content: ";
+    private static final String DATE_SEPARATOR = " | Date: ";
+
+    /**
+     * Parses a single entry. Content may itself contain " | ", so the
+     * fixed fields are located from both ends of the line.
+     * Returns null for header or malformed lines.
+     */
+    public static HistoryEntry parse(String line) {
+        if (line == null || line.isEmpty() || line.charAt(0) != '[') return null;
+
+        int actionEnd = line.indexOf(']');
+        int typeStart = line.indexOf(TYPE_SEPARATOR);
+        int dateStart = line.lastIndexOf(DATE_SEPARATOR);
+        if (actionEnd < 0 || typeStart < actionEnd || dateStart < typeStart) return null;
+
+        int contentStart = line.indexOf(CONTENT_SEPARATOR, typeStart);
+        if (contentStart < 0 || contentStart > dateStart) return null;
+
+        String action = line.substring(1, actionEnd);
+        boolean encrypted = line.startsWith(ENCRYPTED_SUFFIX, actionEnd + 1);
+        String type = line.substring(typeStart + TYPE_SEPARATOR.length(), contentStart);
+        String content = unescape(line.substring(contentStart + CONTENT_SEPARATOR.length(), dateStart));
+        String date = line.substring(dateStart + DATE_SEPARATOR.length()).strip();
+
+        return new HistoryEntry(action, encrypted, type, content, date);
+    }
+
+    /** Formats this entry as one history line (including the trailing newline) */
+    public String format() {
+        return String.format("[%s]%s | Type: %s | Content: %s | Date: %s%n",
+                action, encrypted ? ENCRYPTED_SUFFIX : "", type, escape(content), date);
+    }
+
+    /** Keeps multi-line content on one line so every entry starts with '[' */
+    static String escape(String content) {
+        if (content == null) return "";
+        if (content.indexOf('\\') < 0 && content.indexOf('\n') < 0 && content.indexOf('\r') < 0) {
+            return content;
+        }
+        StringBuilder sb = new StringBuilder(content.length() + 8);
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    static String unescape(String content) {
+        if (content.indexOf('\\') < 0) return content;
+        StringBuilder sb = new StringBuilder(content.length());
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '\\' && i + 1 < content.length()) {
+                char next = content.charAt(++i);
+                switch (next) {
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case '\\' -> sb.append('\\');
+                    default -> sb.append(c).append(next);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.quickscan;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * HistoryIndex
+ * - Memory-maps the history file in segments (a single mapping is limited to 2 GB)
+ * - Builds an index of entry start offsets on a background thread
+ * - Entries can be read while indexing is still running; size() only
+ *   counts entries whose end has already been seen
+ *
+ * An entry starts at a '[' at the beginning of a line and runs until the
+ * next such line, so header lines are skipped and legacy multi-line
+ * content stays attached to its entry.
+ */
+public final class HistoryIndex implements Closeable {
+
+    private static final long SEGMENT_SIZE = 1L << 30;   // 1 GB per mapping
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    private static final int SCAN_CHUNK = 1 << 16;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final MappedByteBuffer[] segments;
+    private final Thread indexer;
+
+    // offsets[i] is the start of entry i; published through the volatile count
+    private volatile long[] offsets = new long[INITIAL_CAPACITY];
+    private volatile int startCount;
+    private volatile boolean complete;
+    private volatile boolean closed;
+
+    private HistoryIndex(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+
+        int segmentCount = (int) ((fileSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+        this.segments = new MappedByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long start = i * SEGMENT_SIZE;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, fileSize - start));
+        }
+
+        this.indexer = new Thread(this::buildIndex, "history-indexer");
+        this.indexer.setDaemon(true);
+    }
+
+    /**
+     * Maps the file and starts indexing it in the background.
+     * Only the bytes present at open time are indexed; reopen to see newer entries.
+     */
+    public static HistoryIndex open(Path file) throws IOException {
+        HistoryIndex index = new HistoryIndex(file);
+        index.indexer.start();
+        return index;
+    }
+
+    /** ---------- INDEXING ---------- */
+    private void buildIndex() {
+        byte[] chunk = new byte[SCAN_CHUNK];
+        boolean lineStart = true;
+        for (int s = 0; s < segments.length; s++) {
+            MappedByteBuffer segment = segments[s];
+            long base = s * SEGMENT_SIZE;
+            int limit = segment.limit();
+            for (int pos = 0; pos < limit; pos += SCAN_CHUNK) {
+                if (closed) return;
+                int length = Math.min(SCAN_CHUNK, limit - pos);
+                segment.get(pos, chunk, 0, length);
+                for (int i = 0; i < length; i++) {
+                    byte b = chunk[i];
+                    if (lineStart && b == '[') {
+                        addOffset(base + pos + i);
+                    }
+                    lineStart = b == '\n';
+                }
+            }
+        }
+        complete = true;
+    }
+
+    private void addOffset(long offset) {
+        long[] current = offsets;
+        int count = startCount;
+        if (count == current.length) {
+            current = Arrays.copyOf(current, count * 2);
+            current[count] = offset;
+            offsets = current;
+        } else {
+            current[count] = offset;
+        }
+        startCount = count + 1;
+    }
+
+    /** ---------- ACCESS ---------- */
+
+    /** Number of fully indexed entries available for reading */
+    public int size() {
+        int count = startCount;
+        if (complete) return count;
+        return Math.max(0, count - 1);
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /** Fraction of the file scanned so far, used for progress display */
+    public double progress() {
+        if (complete || fileSize == 0) return 1.0;
+        int count = startCount;
+        if (count == 0) return 0.0;
+        return (double) offsets[count - 1] / fileSize;
+    }
+
+    /** Returns the raw text of entry i (including its trailing line break) */
+    public String readEntry(int i) {
+        int available = size();
+        if (i < 0 || i >= available) {
+            throw new IndexOutOfBoundsException("Entry " + i + " of " + available);
+        }
+        // read the count before the array: the writer publishes the array first
+        int count = startCount;
+        long[] snapshot = offsets;
+        long start = snapshot[i];
+        long end = i + 1 < count ? snapshot[i + 1] : fileSize;
+        return new String(read(start, (int) (end - start)), StandardCharsets.UTF_8);
+    }
+
+    /** Parses entry i, or returns null if it is not in the expected format */
+    public HistoryEntry entry(int i) {
+        return HistoryEntry.parse(readEntry(i));
+    }
+
+    private byte[] read(long position, int length) {
+        byte[] out = new byte[length];
+        int copied = 0;
+        while (copied < length) {
+            long pos = position + copied;
+            MappedByteBuffer segment = segments[(int) (pos / SEGMENT_SIZE)];
+            int offsetInSegment = (int) (pos % SEGMENT_SIZE);
+            int chunk = Math.min(length - copied, segment.limit() - offsetInSegment);
+            segment.get(offsetInSegment, out, copied, chunk);
+            copied += chunk;
+        }
+        return out;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        channel.close();
+    }
+}
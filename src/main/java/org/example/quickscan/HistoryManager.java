@@ -6,9 +6,11 @@ import javafx.stage.DirectoryChooser;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 import java.util.Optional;
 
 public class HistoryManager {
@@ -22,7 +24,7 @@ public class HistoryManager {
         this.historyFilePath = null;
     }
 
-    public static HistoryManager getInstance() {
+    public static synchronized HistoryManager getInstance() {
         if (instance == null) {
             instance = new HistoryManager();
         }
@@ -71,7 +73,7 @@ public class HistoryManager {
                 String header = "QUICKSCAN QR HISTORY\n"
                         + "===================\n"
                         + "Format: [Action] (Encrypted if any) | Type | Content | Date\n\n";
-                Files.write(path, header.getBytes(), StandardOpenOption.WRITE);
+                Files.write(path, header.getBytes(StandardCharsets.UTF_8), StandardOpenOption.WRITE);
             }
         } catch (IOException e) {
             System.err.println("Error creating history file: " + e.getMessage());
@@ -81,25 +83,20 @@ public class HistoryManager {
     /**
      * Adds a new history entry.
      * Fields: Action, Encryption flag, Type, Full Content, Date
+     * Line breaks in the content are escaped so each entry stays on one line.
      */
-    public void addHistoryEntry(String action, String contentType, String content,
-                                boolean isEncrypted) {
+    public synchronized void addHistoryEntry(String action, String contentType, String content,
+                                             boolean isEncrypted) {
         if (historyFilePath == null) {
             return;
         }
 
         try {
-            String timestamp = LocalDateTime.now().format(DATE_FORMATTER);
-            String encryptedIndicator = isEncrypted ? " (Encrypted)" : "";
-
             // Full content saved (no truncation)
-            String entry = String.format(
-                    "[%s]%s | Type: %s | Content: %s | Date: %s%n",
-                    action, encryptedIndicator, contentType, content, timestamp
-            );
+            String entry = new HistoryEntry(action, isEncrypted, contentType, content, timestamp()).format();
 
             Files.write(Paths.get(historyFilePath),
-                    entry.getBytes(),
+                    entry.getBytes(StandardCharsets.UTF_8),
                     StandardOpenOption.APPEND,
                     StandardOpenOption.CREATE);
 
@@ -108,6 +105,40 @@ public class HistoryManager {
         }
     }
 
+    /**
+     * Appends entries that already carry their date (e.g. results merged from
+     * distributed scan workers) in a single write.
+     * Unlike addHistoryEntry, failures are thrown so the caller can retry.
+     */
+    public synchronized void addHistoryEntries(Collection<HistoryEntry> entries) throws IOException {
+        if (historyFilePath == null) {
+            throw new IOException("History location not set");
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (HistoryEntry entry : entries) {
+            sb.append(entry.format());
+        }
+        Files.write(Paths.get(historyFilePath),
+                sb.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND,
+                StandardOpenOption.CREATE);
+    }
+
+    /** Current time in the history date format */
+    public static String timestamp() {
+        return LocalDateTime.now().format(DATE_FORMATTER);
+    }
+
+    /** Uses the given history file without prompting, for command-line tools */
+    public synchronized void setHistoryFilePath(Path path) {
+        historyFilePath = path.toAbsolutePath().toString();
+        createHistoryFileIfNotExists();
+    }
+
     /** Returns saved history file path */
     public String getHistoryFilePath() {
         return historyFilePath;
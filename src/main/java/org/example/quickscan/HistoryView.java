@@ -0,0 +1,457 @@
+package org.example.quickscan;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.PauseTransition;
+import javafx.animation.Timeline;
+import javafx.collections.ObservableListBase;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HistoryView
+ * - Browses the history file through a virtualized ListView: only visible rows are read
+ * - Entries are paged in from a memory-mapped HistoryIndex built in the background
+ * - Search and filters run on a background thread and stream matches into the list
+ */
+public class HistoryView extends VBox {
+
+    private static final String ALL = "All";
+    private static final int PREVIEW_LENGTH = 160;
+
+    private final MainView mainView;
+    private final ListView<HistoryEntry> listView;
+    private final TextField searchField;
+    private final ComboBox<String> actionFilter;
+    private final ComboBox<String> typeFilter;
+    private final DatePicker fromDate;
+    private final DatePicker toDate;
+    private final ProgressBar progressBar;
+    private final Label statusLabel;
+    private final Timeline refreshTimeline;
+    private final PauseTransition searchDelay;
+
+    private final ExecutorService filterExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "history-filter");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private HistoryIndex index;
+    private HistoryListModel model;
+    private FilterTask filterTask;
+
+    public HistoryView(MainView mainView) {
+        this.mainView = mainView;
+        setSpacing(15);
+        setPadding(new Insets(30));
+        setAlignment(Pos.TOP_CENTER);
+        getStyleClass().add("history-view");
+
+        // Header
+        Label headerLabel = new Label("History");
+        headerLabel.getStyleClass().add("section-header");
+
+        Button backButton = new Button("Back");
+        backButton.getStyleClass().add("back-button");
+        backButton.setOnAction(e -> {
+            close();
+            mainView.showMainOptions();
+        });
+
+        HBox headerBox = new HBox(10, backButton, headerLabel);
+        headerBox.setAlignment(Pos.CENTER_LEFT);
+
+        // Filters
+        searchField = new TextField();
+        searchField.setPromptText("Search content");
+        HBox.setHgrow(searchField, Priority.ALWAYS);
+
+        actionFilter = new ComboBox<>();
+        actionFilter.getItems().add(ALL);
+        actionFilter.getItems().addAll(HistoryEntry.ACTIONS);
+        actionFilter.setValue(ALL);
+
+        typeFilter = new ComboBox<>();
+        typeFilter.getItems().add(ALL);
+        for (ContentType type : ContentType.values()) {
+            typeFilter.getItems().add(type.label());
+        }
+        typeFilter.getItems().add(HistoryEntry.ENCRYPTED_TYPE);
+        typeFilter.setValue(ALL);
+
+        fromDate = new DatePicker();
+        fromDate.setPromptText("From");
+        fromDate.setPrefWidth(130);
+        toDate = new DatePicker();
+        toDate.setPromptText("To");
+        toDate.setPrefWidth(130);
+
+        Button refreshButton = new Button("Reload");
+        refreshButton.getStyleClass().add("action-button");
+        refreshButton.setOnAction(e -> reload());
+
+        HBox filterBox = new HBox(10, searchField, actionFilter, typeFilter, fromDate, toDate, refreshButton);
+        filterBox.setAlignment(Pos.CENTER);
+
+        // typing restarts the search after a short pause; other filters apply immediately
+        searchDelay = new PauseTransition(Duration.millis(150));
+        searchDelay.setOnFinished(e -> applyFilter());
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> searchDelay.playFromStart());
+        actionFilter.setOnAction(e -> applyFilter());
+        typeFilter.setOnAction(e -> applyFilter());
+        fromDate.setOnAction(e -> applyFilter());
+        toDate.setOnAction(e -> applyFilter());
+
+        // Entries
+        listView = new ListView<>();
+        listView.setCellFactory(lv -> new HistoryCell());
+        VBox.setVgrow(listView, Priority.ALWAYS);
+
+        Button copyButton = new Button("Copy Content");
+        copyButton.getStyleClass().add("copy-button");
+        copyButton.setOnAction(e -> copySelected());
+
+        // Status
+        progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(200);
+        statusLabel = new Label("");
+        statusLabel.getStyleClass().add("status-label");
+
+        HBox statusBox = new HBox(15, progressBar, statusLabel, copyButton);
+        statusBox.setAlignment(Pos.CENTER_LEFT);
+
+        getChildren().addAll(headerBox, new Separator(), filterBox, listView, statusBox);
+
+        // Poll the background index and filter instead of posting one runLater per entry
+        refreshTimeline = new Timeline(new KeyFrame(Duration.millis(200), e -> refreshProgress()));
+        refreshTimeline.setCycleCount(Timeline.INDEFINITE);
+    }
+
+    /** ---------- LOADING ---------- */
+
+    /** Re-maps the history file so entries appended since the last open are included */
+    public void reload() {
+        close();
+
+        String filePath = HistoryManager.getInstance().getHistoryFilePath();
+        if (filePath == null || !Files.exists(Paths.get(filePath))) {
+            listView.setItems(null);
+            showStatus("No history file found", true);
+            return;
+        }
+
+        try {
+            index = HistoryIndex.open(Path.of(filePath));
+        } catch (IOException e) {
+            showStatus("Error opening history: " + e.getMessage(), true);
+            return;
+        }
+
+        refreshTimeline.play();
+        applyFilter();
+    }
+
+    private void close() {
+        refreshTimeline.stop();
+        if (filterTask != null) {
+            filterTask.cancel();
+            filterTask = null;
+        }
+        if (index != null) {
+            try {
+                index.close();
+            } catch (IOException e) {
+                System.err.println("Error closing history file: " + e.getMessage());
+            }
+            index = null;
+        }
+    }
+
+    /** ---------- FILTERING ---------- */
+    private void applyFilter() {
+        if (index == null) return;
+
+        Filter filter = new Filter(
+                searchField.getText().trim().toLowerCase(Locale.ROOT),
+                ALL.equals(actionFilter.getValue()) ? null : actionFilter.getValue(),
+                ALL.equals(typeFilter.getValue()) ? null : typeFilter.getValue(),
+                fromDate.getValue() == null ? null : fromDate.getValue().toString(),
+                toDate.getValue() == null ? null : toDate.getValue().toString()
+        );
+
+        FilterTask previous = filterTask;
+        if (previous != null) previous.cancel();
+
+        if (filter.isEmpty()) {
+            filterTask = null;
+            model = new HistoryListModel(index, null);
+        } else {
+            // a narrower search only needs to re-check the previous matches
+            boolean narrows = previous != null && previous.isDone() && filter.narrows(previous.filter);
+            filterTask = new FilterTask(index, filter, narrows ? previous.matches() : null);
+            filterExecutor.submit(filterTask);
+            model = new HistoryListModel(index, filterTask);
+        }
+
+        listView.setItems(model);
+        refreshProgress();
+    }
+
+    private void refreshProgress() {
+        if (index == null || model == null) return;
+
+        model.refreshSize();
+        boolean indexing = !index.isComplete();
+        boolean filtering = filterTask != null && !filterTask.isDone();
+
+        if (indexing) {
+            progressBar.setProgress(index.progress());
+        } else if (filtering) {
+            progressBar.setProgress(ProgressBar.INDETERMINATE_PROGRESS);
+        } else {
+            progressBar.setProgress(1.0);
+        }
+
+        String msg = filterTask == null
+                ? String.format("%,d entries", index.size())
+                : String.format("%,d of %,d entries match", model.size(), index.size());
+        if (indexing) msg += " (indexing…)";
+        else if (filtering) msg += " (searching…)";
+        showStatus(msg, false);
+    }
+
+    /** ---------- ACTIONS ---------- */
+    private void copySelected() {
+        HistoryEntry entry = listView.getSelectionModel().getSelectedItem();
+        if (entry == null) {
+            showStatus("Select an entry to copy", true);
+            return;
+        }
+        ClipboardContent content = new ClipboardContent();
+        content.putString(entry.content());
+        Clipboard.getSystemClipboard().setContent(content);
+        showStatus("Content copied to clipboard ✅", false);
+    }
+
+    private void showStatus(String msg, boolean error) {
+        statusLabel.setText(msg);
+        statusLabel.getStyleClass().removeAll("error-text", "success-text");
+        statusLabel.getStyleClass().add(error ? "error-text" : "success-text");
+    }
+
+    /** ---------- LIST MODEL ---------- */
+
+    /**
+     * Read-only list backed by the index (or by a filter's match list).
+     * Entries are parsed on demand and kept in a small LRU cache, so the
+     * list costs the same whether the file holds a hundred entries or a hundred million.
+     */
+    private static final class HistoryListModel extends ObservableListBase<HistoryEntry> {
+
+        private static final int CACHE_SIZE = 512;
+
+        private final HistoryIndex index;
+        private final FilterTask matches;
+        private final Map<Integer, HistoryEntry> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, HistoryEntry> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+        private int size;
+
+        HistoryListModel(HistoryIndex index, FilterTask matches) {
+            this.index = index;
+            this.matches = matches;
+        }
+
+        /** Publishes entries that became available since the last call (FX thread only) */
+        void refreshSize() {
+            int available = matches == null ? index.size() : matches.matchCount();
+            if (available > size) {
+                int from = size;
+                size = available;
+                beginChange();
+                nextAdd(from, available);
+                endChange();
+            }
+        }
+
+        @Override
+        public HistoryEntry get(int i) {
+            if (i < 0 || i >= size) throw new IndexOutOfBoundsException(i);
+            int entryIndex = matches == null ? i : matches.matchAt(i);
+            return cache.computeIfAbsent(entryIndex, k -> readEntry(index, k));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /** Reads entry i from the current index, keeping unparseable lines visible as raw text */
+    private static HistoryEntry readEntry(HistoryIndex index, int i) {
+        HistoryEntry entry = index.entry(i);
+        if (entry != null) return entry;
+        return new HistoryEntry("?", false, "Unknown", index.readEntry(i).strip(), "");
+    }
+
+    private static final class HistoryCell extends ListCell<HistoryEntry> {
+        @Override
+        protected void updateItem(HistoryEntry entry, boolean empty) {
+            super.updateItem(entry, empty);
+            if (empty || entry == null) {
+                setText(null);
+                return;
+            }
+            String content = HistoryEntry.ENCRYPTED_TYPE.equals(entry.type())
+                    ? "(not decrypted)"
+                    : entry.content().replace('\n', ' ').replace('\r', ' ');
+            if (content.length() > PREVIEW_LENGTH) {
+                content = content.substring(0, PREVIEW_LENGTH) + "…";
+            }
+            setText(String.format("%s  [%s]%s  %s  —  %s",
+                    entry.date(), entry.action(), entry.encrypted() ? " 🔒" : "", entry.type(), content));
+        }
+    }
+
+    /** ---------- BACKGROUND FILTER ---------- */
+
+    /** Filter criteria; text is lower-cased, dates are ISO yyyy-MM-dd strings */
+    private record Filter(String text, String action, String type, String from, String to) {
+
+        boolean isEmpty() {
+            return text.isEmpty() && action == null && type == null && from == null && to == null;
+        }
+
+        /** True if every entry matching this filter also matches the other one */
+        boolean narrows(Filter other) {
+            return text.contains(other.text)
+                    && (other.action == null || other.action.equals(action))
+                    && (other.type == null || other.type.equals(type))
+                    && (other.from == null || (from != null && from.compareTo(other.from) >= 0))
+                    && (other.to == null || (to != null && to.compareTo(other.to) <= 0));
+        }
+
+        boolean matches(HistoryEntry entry) {
+            if (action != null && !action.equals(entry.action())) return false;
+            if (type != null && !type.equals(entry.type())) return false;
+            if (from != null || to != null) {
+                String date = entry.date().length() >= 10 ? entry.date().substring(0, 10) : entry.date();
+                if (from != null && date.compareTo(from) < 0) return false;
+                if (to != null && date.compareTo(to) > 0) return false;
+            }
+            return text.isEmpty() || entry.content().toLowerCase(Locale.ROOT).contains(text);
+        }
+    }
+
+    /**
+     * Scans the index (or a copy of a previous task's matches) and appends matching
+     * entry numbers. Keeps following the index while it is still being built.
+     * Tasks never reference each other, so a chain of narrowing searches only keeps
+     * the current match list alive.
+     */
+    private static final class FilterTask implements Runnable {
+
+        private final HistoryIndex index;
+        private final Filter filter;
+        private int[] source;
+
+        private volatile int[] matched = new int[1024];
+        private volatile int matchCount;
+        private volatile boolean cancelled;
+        private volatile boolean done;
+
+        FilterTask(HistoryIndex index, Filter filter, int[] source) {
+            this.index = index;
+            this.filter = filter;
+            this.source = source;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (source != null) {
+                    for (int i = 0; i < source.length && !cancelled; i++) {
+                        check(source[i]);
+                    }
+                } else {
+                    int next = 0;
+                    while (!cancelled) {
+                        boolean complete = index.isComplete();
+                        int available = index.size();
+                        for (; next < available && !cancelled; next++) {
+                            check(next);
+                        }
+                        if (complete) break;
+                        Thread.sleep(50);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // the index was closed underneath us by a reload
+                if (!cancelled) System.err.println("History filter failed: " + e.getMessage());
+            } finally {
+                source = null;
+                done = !cancelled;
+            }
+        }
+
+        private void check(int entryIndex) {
+            if (filter.matches(readEntry(index, entryIndex))) {
+                int[] current = matched;
+                int count = matchCount;
+                if (count == current.length) {
+                    current = Arrays.copyOf(current, count * 2);
+                    matched = current;
+                }
+                current[count] = entryIndex;
+                matchCount = count + 1;
+            }
+        }
+
+        int matchCount() {
+            return matchCount;
+        }
+
+        /** A copy of the matches found so far, trimmed to length */
+        int[] matches() {
+            int count = matchCount;
+            return Arrays.copyOf(matched, count);
+        }
+
+        int matchAt(int i) {
+            int count = matchCount;
+            if (i >= count) throw new IndexOutOfBoundsException(i);
+            return matched[i];
+        }
+
+        boolean isDone() {
+            return done;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package org.example.quickscan;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.ConvolveOp;
+import java.awt.image.Kernel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Controlled image degradations for the decoder test corpus.
+ * Level 0 is the clean image; levels 1..MAX_LEVEL get progressively worse.
+ * All randomness comes from the caller's Random, so a corpus can be regenerated exactly.
+ */
+public enum ImageDegradation {
+    NONE,
+    BLUR,
+    NOISE,
+    JPEG,
+    ROTATION,
+    PERSPECTIVE,
+    LOW_CONTRAST,
+    SCALE;
+
+    public static final int MAX_LEVEL = 5;
+
+    private static final float[] JPEG_QUALITY = {1.0f, 0.6f, 0.4f, 0.25f, 0.12f, 0.05f};
+    private static final double[] NOISE_SIGMA = {0, 12, 24, 36, 48, 64};
+    private static final double[] ROTATION_DEGREES = {0, 7, 15, 25, 35, 45};
+    private static final double[] PERSPECTIVE_SHIFT = {0, 0.04, 0.08, 0.12, 0.16, 0.22};
+    private static final double[] CONTRAST = {1.0, 0.5, 0.3, 0.18, 0.1, 0.06};
+    private static final double[] SCALE_FACTOR = {1.0, 0.7, 0.5, 0.35, 0.25, 0.18};
+
+    /** File extension the degraded image is stored with */
+    public String extension() {
+        return this == JPEG ? "jpg" : "png";
+    }
+
+    /** Applies the degradation and returns the encoded file bytes */
+    public byte[] encode(BufferedImage source, int level, int backgroundRgb, Random random) throws IOException {
+        if (this == JPEG) {
+            return writeJpeg(source, JPEG_QUALITY[level]);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(apply(source, level, backgroundRgb, random), "png", out);
+        return out.toByteArray();
+    }
+
+    /** Applies the degradation in memory (JPEG is round-tripped through the codec) */
+    public BufferedImage apply(BufferedImage source, int level, int backgroundRgb, Random random) throws IOException {
+        if (level == 0) return source;
+        return switch (this) {
+            case NONE -> source;
+            case BLUR -> blur(source, level);
+            case NOISE -> noise(source, NOISE_SIGMA[level], random);
+            case JPEG -> ImageIO.read(new ByteArrayInputStream(writeJpeg(source, JPEG_QUALITY[level])));
+            case ROTATION -> rotate(source, ROTATION_DEGREES[level] * (random.nextBoolean() ? 1 : -1), backgroundRgb);
+            case PERSPECTIVE -> perspective(source, PERSPECTIVE_SHIFT[level], backgroundRgb, random);
+            case LOW_CONTRAST -> contrast(source, CONTRAST[level]);
+            case SCALE -> scale(source, SCALE_FACTOR[level]);
+        };
+    }
+
+    /** ---------- DEGRADATIONS ---------- */
+
+    /** Gaussian blur with sigma equal to the level, in pixels */
+    private static BufferedImage blur(BufferedImage source, int level) {
+        double sigma = level;
+        int radius = (int) Math.ceil(sigma * 2.5);
+        int size = radius * 2 + 1;
+        float[] weights = new float[size];
+        float sum = 0;
+        for (int i = 0; i < size; i++) {
+            int d = i - radius;
+            weights[i] = (float) Math.exp(-(d * d) / (2 * sigma * sigma));
+            sum += weights[i];
+        }
+        for (int i = 0; i < size; i++) weights[i] /= sum;
+
+        BufferedImage padded = pad(source, radius, source.getRGB(0, 0));
+        BufferedImage horizontal = new ConvolveOp(new Kernel(size, 1, weights), ConvolveOp.EDGE_NO_OP, null)
+                .filter(padded, null);
+        BufferedImage both = new ConvolveOp(new Kernel(1, size, weights), ConvolveOp.EDGE_NO_OP, null)
+                .filter(horizontal, null);
+        return both.getSubimage(radius, radius, source.getWidth(), source.getHeight());
+    }
+
+    private static BufferedImage noise(BufferedImage source, double sigma, Random random) {
+        BufferedImage out = copy(source);
+        for (int y = 0; y < out.getHeight(); y++) {
+            for (int x = 0; x < out.getWidth(); x++) {
+                int rgb = out.getRGB(x, y);
+                int r = clamp(((rgb >> 16) & 0xFF) + random.nextGaussian() * sigma);
+                int g = clamp(((rgb >> 8) & 0xFF) + random.nextGaussian() * sigma);
+                int b = clamp((rgb & 0xFF) + random.nextGaussian() * sigma);
+                out.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        return out;
+    }
+
+    private static BufferedImage rotate(BufferedImage source, double degrees, int backgroundRgb) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double radians = Math.toRadians(degrees);
+        int size = (int) Math.ceil(Math.abs(width * Math.cos(radians)) + Math.abs(height * Math.sin(radians)));
+
+        BufferedImage out = filled(size, size, backgroundRgb);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        AffineTransform transform = new AffineTransform();
+        transform.translate(size / 2.0, size / 2.0);
+        transform.rotate(radians);
+        transform.translate(-width / 2.0, -height / 2.0);
+        g.drawImage(source, transform, null);
+        g.dispose();
+        return out;
+    }
+
+    /** Moves each corner inwards by up to shift * size and resamples through the resulting homography */
+    private static BufferedImage perspective(BufferedImage source, double shift, int backgroundRgb, Random random) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double[] src = {0, 0, width, 0, width, height, 0, height};
+        double[] dst = new double[8];
+        for (int i = 0; i < 8; i += 2) {
+            double dx = random.nextDouble() * shift * width;
+            double dy = random.nextDouble() * shift * height;
+            dst[i] = src[i] == 0 ? src[i] + dx : src[i] - dx;
+            dst[i + 1] = src[i + 1] == 0 ? src[i + 1] + dy : src[i + 1] - dy;
+        }
+        // maps output (distorted) coordinates back to source coordinates
+        double[] h = homography(dst, src);
+
+        BufferedImage out = filled(width, height, backgroundRgb);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                double w = h[6] * x + h[7] * y + 1;
+                int sx = (int) Math.floor((h[0] * x + h[1] * y + h[2]) / w);
+                int sy = (int) Math.floor((h[3] * x + h[4] * y + h[5]) / w);
+                if (sx >= 0 && sy >= 0 && sx < width && sy < height) {
+                    out.setRGB(x, y, source.getRGB(sx, sy));
+                }
+            }
+        }
+        return out;
+    }
+
+    /** Pulls every channel towards mid-gray; factor 1 keeps the image, 0 makes it flat */
+    private static BufferedImage contrast(BufferedImage source, double factor) {
+        BufferedImage out = copy(source);
+        for (int y = 0; y < out.getHeight(); y++) {
+            for (int x = 0; x < out.getWidth(); x++) {
+                int rgb = out.getRGB(x, y);
+                int r = clamp(128 + (((rgb >> 16) & 0xFF) - 128) * factor);
+                int g = clamp(128 + (((rgb >> 8) & 0xFF) - 128) * factor);
+                int b = clamp(128 + ((rgb & 0xFF) - 128) * factor);
+                out.setRGB(x, y, (r << 16) | (g << 8) | b);
+            }
+        }
+        return out;
+    }
+
+    private static BufferedImage scale(BufferedImage source, double factor) {
+        int width = Math.max(1, (int) Math.round(source.getWidth() * factor));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * factor));
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(source, 0, 0, width, height, null);
+        g.dispose();
+        return out;
+    }
+
+    /** ---------- HELPERS ---------- */
+    private static byte[] writeJpeg(BufferedImage source, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(copy(source), null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /** Solves for the 3x3 homography (h33 = 1) taking the four from-points to the to-points */
+    private static double[] homography(double[] from, double[] to) {
+        double[][] a = new double[8][9];
+        for (int i = 0; i < 4; i++) {
+            double x = from[2 * i], y = from[2 * i + 1];
+            double u = to[2 * i], v = to[2 * i + 1];
+            a[2 * i] = new double[]{x, y, 1, 0, 0, 0, -u * x, -u * y, u};
+            a[2 * i + 1] = new double[]{0, 0, 0, x, y, 1, -v * x, -v * y, v};
+        }
+        // Gauss-Jordan elimination with partial pivoting
+        for (int col = 0; col < 8; col++) {
+            int pivot = col;
+            for (int row = col + 1; row < 8; row++) {
+                if (Math.abs(a[row][col]) > Math.abs(a[pivot][col])) pivot = row;
+            }
+            double[] tmp = a[col];
+            a[col] = a[pivot];
+            a[pivot] = tmp;
+            for (int row = 0; row < 8; row++) {
+                if (row == col) continue;
+                double f = a[row][col] / a[col][col];
+                for (int k = col; k < 9; k++) a[row][k] -= f * a[col][k];
+            }
+        }
+        double[] h = new double[8];
+        for (int i = 0; i < 8; i++) h[i] = a[i][8] / a[i][i];
+        return h;
+    }
+
+    private static BufferedImage pad(BufferedImage source, int border, int rgb) {
+        BufferedImage out = filled(source.getWidth() + 2 * border, source.getHeight() + 2 * border, rgb);
+        Graphics2D g = out.createGraphics();
+        g.drawImage(source, border, border, null);
+        g.dispose();
+        return out;
+    }
+
+    private static BufferedImage filled(int width, int height, int rgb) {
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        g.setColor(new Color(rgb));
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        return out;
+    }
+
+    private static BufferedImage copy(BufferedImage source) {
+        BufferedImage out = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return out;
+    }
+
+    private static int clamp(double value) {
+        return (int) Math.max(0, Math.min(255, Math.round(value)));
+    }
+}
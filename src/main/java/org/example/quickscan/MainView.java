@@ -14,6 +14,8 @@ public class MainView extends BorderPane {
 
     private QRGeneratorView generatorView;
     private QRScannerView scannerView;
+    private HistoryView historyView;
+    private WatchFolderView watchFolderView;
 
     public MainView() {
         this.getStyleClass().add("main-view");
@@ -42,7 +44,15 @@ public class MainView extends BorderPane {
         scanButton.getStyleClass().add("main-button");
         scanButton.setOnAction(e -> showScannerView());
 
-        VBox optionsBox = new VBox(20, generateButton, scanButton);
+        Button historyButton = new Button("View History");
+        historyButton.getStyleClass().add("main-button");
+        historyButton.setOnAction(e -> showHistoryView());
+
+        Button watchButton = new Button("Watch Folder");
+        watchButton.getStyleClass().add("main-button");
+        watchButton.setOnAction(e -> showWatchFolderView());
+
+        VBox optionsBox = new VBox(20, generateButton, scanButton, historyButton, watchButton);
         optionsBox.setAlignment(Pos.CENTER);
         optionsBox.setPadding(new Insets(50));
         
@@ -51,6 +61,8 @@ public class MainView extends BorderPane {
         // Initialize views
         generatorView = new QRGeneratorView(this);
         scannerView = new QRScannerView(this);
+        historyView = new HistoryView(this);
+        watchFolderView = new WatchFolderView(this);
     }
 
     public void showGeneratorView() {
@@ -61,6 +73,16 @@ public class MainView extends BorderPane {
         setCenter(scannerView);
     }
 
+    public void showHistoryView() {
+        HistoryManager.getInstance().ensureHistoryLocationSet(this);
+        setCenter(historyView);
+        historyView.reload();
+    }
+
+    public void showWatchFolderView() {
+        setCenter(watchFolderView);
+    }
+
     public void showMainOptions() {
         Button generateButton = new Button("Generate QR Code");
         generateButton.getStyleClass().add("main-button");
@@ -70,7 +92,15 @@ public class MainView extends BorderPane {
         scanButton.getStyleClass().add("main-button");
         scanButton.setOnAction(e -> showScannerView());
 
-        VBox optionsBox = new VBox(20, generateButton, scanButton);
+        Button historyButton = new Button("View History");
+        historyButton.getStyleClass().add("main-button");
+        historyButton.setOnAction(e -> showHistoryView());
+
+        Button watchButton = new Button("Watch Folder");
+        watchButton.getStyleClass().add("main-button");
+        watchButton.setOnAction(e -> showWatchFolderView());
+
+        VBox optionsBox = new VBox(20, generateButton, scanButton, historyButton, watchButton);
         optionsBox.setAlignment(Pos.CENTER);
         optionsBox.setPadding(new Insets(50));
         
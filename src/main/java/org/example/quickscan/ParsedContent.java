@@ -0,0 +1,23 @@
+package org.example.quickscan;
+
+import java.util.Map;
+
+/**
+ * Result of classifying scanned content.
+ * Fields hold the parsed parts (e.g. "ssid" for Wi-Fi, "number" for SMS),
+ * in the order they appeared.
+ */
+public record ParsedContent(ContentType type, String raw, Map<String, String> fields) {
+
+    public ParsedContent {
+        fields = fields == null ? Map.of() : fields;
+    }
+
+    public static ParsedContent of(ContentType type, String raw) {
+        return new ParsedContent(type, raw, Map.of());
+    }
+
+    public String field(String name) {
+        return fields.get(name);
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.quickscan;
+
+import com.google.zxing.WriterException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * PayloadCompressor
+ * - Optional generator stage, applied before encryption: QZ:<Base45 of raw Deflate>
+ * - Deflate starts from a preset dictionary of common URL, JSON and QR-format fragments,
+ *   so even short payloads compress
+ * - Base45 keeps the whole payload in QR alphanumeric mode
+ * - choose(...) keeps whichever form needs the smaller QR version
+ * - expand(...) undoes the stage on scanned text and passes anything else through, including
+ *   third-party codes that merely start with QZ: and do not decode
+ *
+ * The dictionary is part of the format: changing it needs a new prefix.
+ */
+public final class PayloadCompressor {
+
+    public static final String PREFIX = "QZ:";
+
+    /** Stands in for "does not fit one symbol" when comparing versions */
+    public static final int TOO_LARGE = 41;
+
+    /** Refuses to expand beyond this, so a crafted code cannot exhaust memory */
+    private static final int MAX_EXPANDED_BYTES = 1 << 20;
+
+    // most frequent fragments last: deflate reaches the end of the dictionary with the shortest distances
+    private static final byte[] DICTIONARY = (
+            "BEGIN:VCARD\nVERSION:3.0\nN:FN:ORG:TITLE:TEL;TYPE=CELL:ADR:NOTE:END:VCARD\n"
+                    + "MECARD:N:TEL:EMAIL:;;WIFI:T:WPA;S:;P:;H:false;;mailto:?subject=&body=geo:"
+                    + "\"timestamp\":\"description\":\"version\":\"enabled\":\"settings\":\"config\":"
+                    + "\"address\":\"password\":\"username\":\"email\":\"title\":\"value\":\"type\":"
+                    + "\"name\":\"id\":null,false,true,\"}],\"},{\"\":[{\"\":{\"\"},\"\":\""
+                    + "index.html.php?id=&ref=qr&utm_source=qr&utm_medium=&utm_campaign="
+                    + "/api/v1//products//search?q=.org/.net/.io/.com/http://www.https://www.https://"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    /** The selected payload and the QR versions of both forms */
+    public record Choice(String payload, boolean compressed, int rawVersion, int chosenVersion) {
+
+        /** Modules (squares) the chosen form saves over the raw one; 0 if either does not fit one symbol */
+        public int modulesSaved() {
+            if (rawVersion == TOO_LARGE || chosenVersion == TOO_LARGE) return 0;
+            return moduleCount(rawVersion) - moduleCount(chosenVersion);
+        }
+
+        private static int moduleCount(int version) {
+            int side = 17 + 4 * version;
+            return side * side;
+        }
+    }
+
+    private PayloadCompressor() { /* no instantiation */ }
+
+    public static boolean isCompressed(String text) {
+        return text != null && text.startsWith(PREFIX);
+    }
+
+    public static String compress(String text) {
+        byte[] input = text.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setDictionary(DICTIONARY);
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2 + 16);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return PREFIX + Base45.encode(out.toByteArray());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /** Returns the original text of a QZ: payload, or the text unchanged if it is not a valid one */
+    public static String expand(String text) {
+        if (!isCompressed(text)) return text;
+        try {
+            return decompress(text);
+        } catch (IllegalArgumentException e) {
+            // not ours (or damaged): show what the code actually says
+            return text;
+        }
+    }
+
+    /** Strict form of expand for a QZ: payload; throws IllegalArgumentException if it does not decode */
+    static String decompress(String text) {
+        byte[] input = Base45.decode(text.substring(PREFIX.length()));
+        Inflater inflater = new Inflater(true);
+        try {
+            // raw deflate streams do not announce a dictionary, so it is set up front
+            inflater.setDictionary(DICTIONARY);
+            inflater.setInput(input);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length * 3);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated compressed payload");
+                }
+                out.write(buffer, 0, n);
+                if (out.size() > MAX_EXPANDED_BYTES) {
+                    throw new IllegalArgumentException("Compressed payload expands beyond " + MAX_EXPANDED_BYTES + " bytes");
+                }
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Picks between the final raw and compressed payloads (after any encryption)
+     * by QR version. Ties keep the raw form. When neither fits one symbol, the
+     * shorter one is kept so the multi-QR sequence needs fewer parts.
+     */
+    public static Choice choose(String raw, String compressed) {
+        int rawVersion = versionOf(raw);
+        int compressedVersion = versionOf(compressed);
+        boolean useCompressed = compressedVersion < rawVersion
+                || (compressedVersion == TOO_LARGE && rawVersion == TOO_LARGE
+                && compressed.getBytes(StandardCharsets.UTF_8).length < raw.getBytes(StandardCharsets.UTF_8).length);
+        return useCompressed
+                ? new Choice(compressed, true, rawVersion, compressedVersion)
+                : new Choice(raw, false, rawVersion, rawVersion);
+    }
+
+    private static int versionOf(String payload) {
+        try {
+            return QRCodeRenderer.version(payload);
+        } catch (WriterException e) {
+            return TOO_LARGE;
+        }
+    }
+}
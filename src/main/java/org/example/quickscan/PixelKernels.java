@@ -0,0 +1,53 @@
+package org.example.quickscan;
+
+/**
+ * PixelKernels
+ * - The per-pixel loops behind RasterLuminanceSource and VectorHybridBinarizer
+ * - INSTANCE uses the Vector API when the jdk.incubator.vector module is present
+ *   (run with --add-modules jdk.incubator.vector) and the CPU has wide enough vectors,
+ *   otherwise plain scalar loops
+ * - Every implementation must produce exactly the same bytes and bits as ZXing's
+ *   BufferedImageLuminanceSource and HybridBinarizer
+ *
+ * -Dquickscan.vector=false forces the scalar implementation.
+ */
+abstract class PixelKernels {
+
+    static final PixelKernels SCALAR = new ScalarPixelKernels();
+    static final PixelKernels INSTANCE = select();
+
+    /** Converts packed ARGB (or RGB when hasAlpha is false) pixels to ZXing's luminance bytes */
+    abstract void argbToLuminance(int[] argb, int argbOffset, byte[] luminances, int offset, int count, boolean hasAlpha);
+
+    /**
+     * Per-column sum, minimum and maximum over the rows of one binarizer block
+     * (VectorHybridBinarizer.BLOCK_SIZE rows starting at offset).
+     * Minimums and maximums are unsigned bytes.
+     */
+    abstract void columnStats(byte[] luminances, int offset, int stride, int width,
+                              short[] sums, byte[] mins, byte[] maxes);
+
+    /** Sets the bit of every pixel in the row whose luminance is <= its column's threshold */
+    abstract void thresholdRow(byte[] luminances, int offset, byte[] thresholds, int width, int[] bits);
+
+    abstract String describe();
+
+    private static PixelKernels select() {
+        if (!Boolean.parseBoolean(System.getProperty("quickscan.vector", "true"))) return SCALAR;
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return SCALAR;
+        try {
+            // only loaded once the module is known to be there
+            if (VectorPixelKernels.isSupported()) return new VectorPixelKernels();
+        } catch (LinkageError e) {
+            System.err.println("Vector API unavailable, using scalar pixel loops: " + e);
+        }
+        return SCALAR;
+    }
+
+    /** ZXing's luminance formula: .299R + .587G + .114B in 10-bit fixed point, rounded */
+    static int luminance(int argb, boolean hasAlpha) {
+        // fully transparent pixels count as white
+        if (hasAlpha && (argb & 0xFF000000) == 0) return 0xFF;
+        return (306 * ((argb >> 16) & 0xFF) + 601 * ((argb >> 8) & 0xFF) + 117 * (argb & 0xFF) + 0x200) >> 10;
+    }
+}
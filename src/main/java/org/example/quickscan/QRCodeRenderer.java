@@ -0,0 +1,66 @@
+package org.example.quickscan;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import com.google.zxing.qrcode.encoder.Encoder;
+
+import java.awt.image.BufferedImage;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * QRCodeRenderer
+ * - The QRCodeWriter settings used by the generator view (UTF-8, error correction M, margin 1)
+ * - Renders a BitMatrix with the chosen foreground and background colors
+ * - modules(...) gives the unscaled module matrix that exports are written from
+ */
+public final class QRCodeRenderer {
+
+    public static final int SIZE = 300;
+
+    private QRCodeRenderer() { /* no instantiation */ }
+
+    /** Encodes the text as a size x size QR matrix */
+    public static BitMatrix encode(String text, int size) throws WriterException {
+        QRCodeWriter writer = new QRCodeWriter();
+        return writer.encode(text, BarcodeFormat.QR_CODE, size, size, hints());
+    }
+
+    /** The QR version (1-40) the text encodes at; throws WriterException if it does not fit one symbol */
+    public static int version(String text) throws WriterException {
+        return Encoder.encode(text, ErrorCorrectionLevel.M, hints()).getVersion().getVersionNumber();
+    }
+
+    /** Encodes the text at one pixel per module, quiet zone included, for QRImageExporter */
+    public static BitMatrix modules(String text) throws WriterException {
+        // QRCodeWriter never scales below the code's own size
+        return encode(text, 0);
+    }
+
+    private static Map<EncodeHintType, Object> hints() {
+        Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
+        hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
+        hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M);
+        hints.put(EncodeHintType.MARGIN, 1);
+        return hints;
+    }
+
+    /** Draws the matrix with 0xRRGGBB foreground / background colors */
+    public static BufferedImage render(BitMatrix matrix, int foregroundRgb, int backgroundRgb) {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                row[x] = matrix.get(x, y) ? foregroundRgb : backgroundRgb;
+            }
+            image.setRGB(0, y, width, 1, row, 0, width);
+        }
+        return image;
+    }
+}
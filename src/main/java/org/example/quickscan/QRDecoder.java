@@ -0,0 +1,151 @@
+package org.example.quickscan;
+
+import com.google.zxing.*;
+import com.google.zxing.multi.qrcode.QRCodeMultiReader;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * QRDecoder
+ * - The decode configuration used by the scanner view and batch paths
+ * - decodeFile(...) consults the DecodeCache before reading and decoding an image
+ * - decodeAllFile(...) finds every code in an image (e.g. a structured-append sheet)
+ * - Luminance and binarization use RasterLuminanceSource / VectorHybridBinarizer,
+ *   which match ZXing's BufferedImageLuminanceSource / HybridBinarizer bit for bit
+ */
+public final class QRDecoder {
+
+    /**
+     * Version of the decode configuration below. Part of every cache key,
+     * so bump it whenever hints or binarization change.
+     * 2: RasterLuminanceSource supports rotation again (version 1 missed vertical 1D codes).
+     */
+    public static final int SETTINGS_VERSION = 2;
+
+    /** Set in the cache key's version for decodeAllFile results, which are stored in another format */
+    private static final int MULTI_KEY_FLAG = 1 << 16;
+
+    private static final Map<DecodeHintType, Object> HINTS;
+
+    static {
+        Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
+        hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+        HINTS = Collections.unmodifiableMap(hints);
+    }
+
+    private QRDecoder() { /* no instantiation */ }
+
+    /** Decodes the first code found in the image, or returns null if there is none */
+    public static String decode(BufferedImage image) {
+        try {
+            LuminanceSource source = new RasterLuminanceSource(image);
+            BinaryBitmap bitmap = new BinaryBitmap(new VectorHybridBinarizer(source));
+            Result result = new MultiFormatReader().decode(bitmap, HINTS);
+            return result.getText();
+        } catch (NotFoundException e) {
+            return null;
+        }
+    }
+
+    /** Decodes every QR code found in the image, in reading order, without duplicates */
+    public static List<String> decodeAll(BufferedImage image) {
+        try {
+            LuminanceSource source = new RasterLuminanceSource(image);
+            BinaryBitmap bitmap = new BinaryBitmap(new VectorHybridBinarizer(source));
+            Set<String> texts = new LinkedHashSet<>();
+            for (Result result : new QRCodeMultiReader().decodeMultiple(bitmap, HINTS)) {
+                texts.add(result.getText());
+            }
+            return new ArrayList<>(texts);
+        } catch (NotFoundException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Decodes an image file, returning the cached result when the same bytes
+     * were decoded before with the same settings.
+     * Returns null if the image contains no code.
+     */
+    public static String decodeFile(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        DecodeCache cache = DecodeCache.getInstance();
+        DecodeCache.Key key = DecodeCache.key(bytes, SETTINGS_VERSION);
+
+        DecodeCache.Lookup cached = cache.get(key);
+        if (cached != null) return cached.text();
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+        if (image == null) {
+            throw new IOException("Unsupported image format: " + file.getFileName());
+        }
+        String text = decode(image);
+        cache.put(key, text);
+        return text;
+    }
+
+    /** Like decodeFile, but returns every code in the image; empty if there is none */
+    public static List<String> decodeAllFile(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        DecodeCache cache = DecodeCache.getInstance();
+        DecodeCache.Key key = DecodeCache.key(bytes, SETTINGS_VERSION | MULTI_KEY_FLAG);
+
+        DecodeCache.Lookup cached = cache.get(key);
+        if (cached != null) {
+            List<String> texts = unpack(cached.text());
+            if (texts != null) return texts;
+            // a damaged record is decoded again and overwritten below
+        }
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+        if (image == null) {
+            throw new IOException("Unsupported image format: " + file.getFileName());
+        }
+        List<String> texts = decodeAll(image);
+        cache.put(key, texts.isEmpty() ? null : pack(texts));
+        return texts;
+    }
+
+    /** Length-prefixed ("<length>:<text>" repeated), so texts may contain any character */
+    private static String pack(List<String> texts) {
+        StringBuilder sb = new StringBuilder();
+        for (String text : texts) {
+            sb.append(text.length()).append(':').append(text);
+        }
+        return sb.toString();
+    }
+
+    /** Reverses pack; returns null if the record is malformed */
+    private static List<String> unpack(String packed) {
+        List<String> texts = new ArrayList<>();
+        if (packed == null) return texts;
+        int i = 0;
+        while (i < packed.length()) {
+            int colon = packed.indexOf(':', i);
+            if (colon <= i) return null;
+            int length;
+            try {
+                length = Integer.parseInt(packed, i, colon, 10);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            int end = colon + 1 + length;
+            if (length < 0 || end > packed.length()) return null;
+            texts.add(packed.substring(colon + 1, end));
+            i = end;
+        }
+        return texts;
+    }
+}
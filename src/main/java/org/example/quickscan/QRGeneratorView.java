@@ -1,13 +1,11 @@
 package org.example.quickscan;
 
-import com.google.zxing.*;
+import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
-import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import javafx.application.Platform;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.SnapshotParameters;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
@@ -19,13 +17,15 @@ import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.stage.FileChooser;
 
-import javax.imageio.ImageIO;
 import java.awt.Desktop;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.util.EnumMap;
-import java.util.Map;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 public class QRGeneratorView extends VBox {
 
@@ -38,7 +38,23 @@ public class QRGeneratorView extends VBox {
     private final ColorPicker backgroundColorPicker;
     private final CheckBox passwordProtectionCheckBox;
     private final TextField passwordField;
+    private final CheckBox compressCheckBox;
+    private final Label attachmentLabel;
+    private final Button clearAttachmentButton;
+    private File attachedFile;
     private String currentContent;
+    // exports are written from these rather than from the displayed image:
+    // the module matrix of a single code, or the symbols and sheet of a multi-QR sequence
+    private BitMatrix currentModules;
+    private int currentForeground;
+    private int currentBackground;
+    private List<BufferedImage> currentSymbols;
+    private BufferedImage currentSheet;
+    // bumped on every Generate click; a sequence still rendering for an older click is discarded
+    private int generation;
+
+    /** Larger files would need hundreds of symbols */
+    private static final long MAX_ATTACHMENT_BYTES = 32 * 1024;
 
     public QRGeneratorView(MainView mainView) {
         this.mainView = mainView;
@@ -116,9 +132,31 @@ public class QRGeneratorView extends VBox {
 
         });
 
-        HBox passwordBox = new HBox(10, passwordProtectionCheckBox, passwordField);
+        // Compression (kept only when it gives a smaller QR version)
+        compressCheckBox = new CheckBox("Compress");
+        compressCheckBox.setSelected(true);
+        compressCheckBox.setStyle("-fx-text-fill: white;");
+        compressCheckBox.getStyleClass().add("input-option");
+
+        HBox passwordBox = new HBox(10, passwordProtectionCheckBox, passwordField, compressCheckBox);
         passwordBox.setAlignment(Pos.CENTER);
 
+        // File attachment (sent instead of the text, split over several codes when needed)
+        Button attachButton = new Button("Attach File");
+        attachButton.getStyleClass().add("back-button");
+        attachButton.setOnAction(e -> attachFile());
+
+        attachmentLabel = new Label("");
+        attachmentLabel.setStyle("-fx-text-fill: white;");
+
+        clearAttachmentButton = new Button("Remove");
+        clearAttachmentButton.getStyleClass().add("back-button");
+        clearAttachmentButton.setVisible(false);
+        clearAttachmentButton.setOnAction(e -> setAttachedFile(null));
+
+        HBox attachmentBox = new HBox(10, attachButton, attachmentLabel, clearAttachmentButton);
+        attachmentBox.setAlignment(Pos.CENTER);
+
         // Action Buttons
         Button generateButton = new Button("Generate QR");
         generateButton.getStyleClass().add("action-button");
@@ -153,73 +191,153 @@ public class QRGeneratorView extends VBox {
         getChildren().addAll(
                 headerBox, new Separator(),
                 typeBox, contentLabel, contentInput,
-                colorBox, passwordBox, actionBox,
+                colorBox, passwordBox, attachmentBox, actionBox,
                 qrImageView, statusLabel
         );
     }
 
     private void generateQRCode() {
+        generation++;
         String text = contentInput.getText().trim();
-        if (text.isEmpty()) {
+        if (attachedFile != null) {
+            try {
+                text = FilePayload.encode(attachedFile.getName(), Files.readAllBytes(attachedFile.toPath()));
+            } catch (IOException e) {
+                showStatus("Error reading file: " + e.getMessage(), true);
+                return;
+            }
+        } else if (text.isEmpty()) {
             showStatus("Please enter content to generate QR code", true);
             return;
-        }
-
-        RadioButton selected = (RadioButton) inputTypeGroup.getSelectedToggle();
-        String type = selected != null ? selected.getText() : "Text";
-        if (type.equals("URL") && !text.matches("^(https?|ftp)://.*$")) {
-            text = "http://" + text;
+        } else {
+            RadioButton selected = (RadioButton) inputTypeGroup.getSelectedToggle();
+            String type = selected != null ? selected.getText() : "Text";
+            if (type.equals("URL") && !text.matches("^(https?|ftp)://.*$")) {
+                text = "http://" + text;
+            }
         }
 
         currentContent = text;
-        boolean encrypted = false;
 
-        // Encryption Handling
+        String password = null;
         if (passwordProtectionCheckBox.isSelected()) {
-            String password = passwordField.getText().trim();
+            password = passwordField.getText().trim();
             if (password.isEmpty()) {
                 showStatus("Please enter a password for protection", true);
                 return;
             }
-            try {
-                String encryptedPayload = EncryptionUtil.encrypt(text, password);
-                text = "ENCRYPTED:" + encryptedPayload;
-                encrypted = true;
-                showStatus("Content encrypted successfully ✅", false);
-            } catch (Exception ex) {
-                showStatus("Encryption failed: " + ex.getMessage(), true);
-                return;
-            }
         }
 
+        // Compression comes before encryption; both forms are compared as they will be encoded
+        PayloadCompressor.Choice compression = null;
         try {
-            Map<EncodeHintType, Object> hints = new EnumMap<>(EncodeHintType.class);
-            hints.put(EncodeHintType.CHARACTER_SET, "UTF-8");
-            hints.put(EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M);
-            hints.put(EncodeHintType.MARGIN, 1);
-
-            QRCodeWriter writer = new QRCodeWriter();
-            BitMatrix matrix = writer.encode(text, BarcodeFormat.QR_CODE, 300, 300, hints);
-
-            Color fg = foregroundColorPicker.getValue();
-            Color bg = backgroundColorPicker.getValue();
-
-            BufferedImage qrImage = new BufferedImage(300, 300, BufferedImage.TYPE_INT_RGB);
-            for (int x = 0; x < 300; x++) {
-                for (int y = 0; y < 300; y++) {
-                    qrImage.setRGB(x, y, matrix.get(x, y)
-                            ? fxToRgb(fg)
-                            : fxToRgb(bg));
-                }
+            String raw = protect(text, password);
+            if (compressCheckBox.isSelected()) {
+                compression = PayloadCompressor.choose(raw, protect(PayloadCompressor.compress(text), password));
+                text = compression.payload();
+            } else {
+                text = raw;
             }
+        } catch (Exception ex) {
+            showStatus("Encryption failed: " + ex.getMessage(), true);
+            return;
+        }
+        String compressionNote = describe(compression);
 
-            Image fxImg = SwingFXUtils.toFXImage(qrImage, null);
-            qrImageView.setImage(fxImg);
-            showStatus("QR Code generated successfully ✅", false);
+        int fg = fxToRgb(foregroundColorPicker.getValue());
+        int bg = fxToRgb(backgroundColorPicker.getValue());
+        currentModules = null;
+        currentSymbols = null;
+        currentSheet = null;
 
+        BitMatrix modules;
+        try {
+            modules = QRCodeRenderer.modules(text);
+        } catch (WriterException ex) {
+            // too large for one symbol
+            generateSequence(text, fg, bg, compressionNote);
+            return;
         } catch (Exception ex) {
             showStatus("Error generating QR: " + ex.getMessage(), true);
+            return;
         }
+
+        currentModules = modules;
+        currentForeground = fg;
+        currentBackground = bg;
+        qrImageView.setImage(QRImageExporter.toFxImage(modules, QRImageExporter.scaleFor(modules), fg, bg));
+        showStatus("QR Code generated successfully ✅" + compressionNote, false);
+    }
+
+    /** Encrypts the payload when a password is given */
+    private static String protect(String payload, String password) throws Exception {
+        return password == null ? payload : "ENCRYPTED:" + EncryptionUtil.encrypt(payload, password);
+    }
+
+    /** e.g. " · compressed: version 6 → 4, 592 fewer modules" */
+    private static String describe(PayloadCompressor.Choice compression) {
+        if (compression == null) return "";
+        if (!compression.compressed()) {
+            return " · not compressed (no smaller version)";
+        }
+        if (compression.rawVersion() == PayloadCompressor.TOO_LARGE) {
+            return compression.chosenVersion() == PayloadCompressor.TOO_LARGE
+                    ? " · compressed to fewer codes"
+                    : " · compressed to fit one code (version " + compression.chosenVersion() + ")";
+        }
+        return " · compressed: version " + compression.rawVersion() + " → " + compression.chosenVersion()
+                + ", " + compression.modulesSaved() + " fewer modules";
+    }
+
+    /** ---------- MULTI-QR SEQUENCE ---------- */
+
+    /** Splits the payload into a structured-append sequence and renders its symbols off the FX thread */
+    private void generateSequence(String payload, int fg, int bg, String compressionNote) {
+        List<String> parts = StructuredAppend.split(payload);
+        qrImageView.setImage(null);
+        showStatus("Content is too large for one QR code — generating " + parts.size() + " codes…", false);
+        int started = generation;
+
+        Thread worker = new Thread(() -> {
+            try {
+                List<BufferedImage> symbols = QRSheetExporter.renderSymbols(parts, fg, bg);
+                BufferedImage sheet = QRSheetExporter.layoutSheet(symbols, bg);
+                Image fxSheet = SwingFXUtils.toFXImage(sheet, null);
+                Platform.runLater(() -> {
+                    if (started != generation) return;
+                    currentSymbols = symbols;
+                    currentSheet = sheet;
+                    qrImageView.setImage(fxSheet);
+                    showStatus("Generated " + symbols.size() + " QR codes — save as a sheet or PDF and scan them in any order ✅"
+                            + compressionNote, false);
+                });
+            } catch (Exception ex) {
+                Platform.runLater(() -> {
+                    if (started == generation) showStatus("Error generating QR: " + ex.getMessage(), true);
+                });
+            }
+        }, "qr-sequence-render");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void attachFile() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Attach File");
+        File file = chooser.showOpenDialog(this.getScene().getWindow());
+        if (file == null) return;
+        if (file.length() > MAX_ATTACHMENT_BYTES) {
+            showStatus("File is too large (max " + MAX_ATTACHMENT_BYTES / 1024 + " KB)", true);
+            return;
+        }
+        setAttachedFile(file);
+    }
+
+    private void setAttachedFile(File file) {
+        attachedFile = file;
+        attachmentLabel.setText(file == null ? "" : "📎 " + file.getName() + " (" + file.length() + " bytes)");
+        clearAttachmentButton.setVisible(file != null);
+        contentInput.setDisable(file != null);
     }
 
     private int fxToRgb(Color color) {
@@ -229,45 +347,57 @@ public class QRGeneratorView extends VBox {
         return (r << 16) | (g << 8) | b;
     }
 
+    /** ---------- EXPORT ---------- */
+
+    /** Writer for the current code (1-bit PNG from its modules) or sequence (the sheet); null if there is none */
+    private QRImageExporter.FileWriter currentPngWriter() {
+        if (currentModules != null) {
+            return QRImageExporter.png(currentModules, currentForeground, currentBackground);
+        }
+        if (currentSheet != null) {
+            return QRImageExporter.image(currentSheet);
+        }
+        return null;
+    }
+
     private void copyQRCode() {
         if (qrImageView.getImage() == null) {
             showStatus("Generate a QR code first", true);
             return;
         }
+        // the displayed image is already built from the modules (or the sheet), so no snapshot is needed
         Clipboard clipboard = Clipboard.getSystemClipboard();
         ClipboardContent content = new ClipboardContent();
-        SnapshotParameters params = new SnapshotParameters();
-        params.setFill(Color.TRANSPARENT);
-        Image snapshot = qrImageView.snapshot(params, null);
-        content.putImage(snapshot);
+        content.putImage(qrImageView.getImage());
         clipboard.setContent(content);
         showStatus("QR Code copied to clipboard 📋", false);
     }
 
     private void shareQRCode() {
-        if (qrImageView.getImage() == null) {
+        QRImageExporter.FileWriter writer = currentPngWriter();
+        if (writer == null) {
             showStatus("Generate a QR code first", true);
             return;
         }
-        try {
-            File temp = File.createTempFile("QuickScan_QR_", ".png");
-            BufferedImage img = SwingFXUtils.fromFXImage(qrImageView.getImage(), null);
-            ImageIO.write(img, "png", temp);
+        if (!Desktop.isDesktopSupported()) {
+            showStatus("Desktop not supported on this system", true);
+            return;
+        }
 
-            if (Desktop.isDesktopSupported()) {
-                Desktop.getDesktop().open(temp);
-                showStatus("QR Code opened in Photos — share from there 📷", false);
-            } else {
-                showStatus("Desktop not supported on this system", true);
+        CompletableFuture<File> opened = QRImageExporter.shareAsync(writer).thenApply(file -> {
+            try {
+                Desktop.getDesktop().open(file);
+                return file;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-
-        } catch (IOException e) {
-            showStatus("Error opening QR image: " + e.getMessage(), true);
-        }
+        });
+        whenExported(opened, file -> "QR Code opened in Photos — share from there 📷", "Error opening QR image: ");
     }
 
     private void saveQRCode() {
-        if (qrImageView.getImage() == null) {
+        QRImageExporter.FileWriter writer = currentPngWriter();
+        if (writer == null) {
             showStatus("Generate a QR code first", true);
             return;
         }
@@ -275,18 +405,43 @@ public class QRGeneratorView extends VBox {
         FileChooser chooser = new FileChooser();
         chooser.setTitle("Save QR Code");
         chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("PNG Image", "*.png"));
+        if (currentSymbols != null) {
+            chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("PDF Document", "*.pdf"));
+        }
         chooser.setInitialFileName("qrcode.png");
 
         File file = chooser.showSaveDialog(this.getScene().getWindow());
-        if (file != null) {
-            try {
-                BufferedImage bufferedImage = SwingFXUtils.fromFXImage(qrImageView.getImage(), null);
-                ImageIO.write(bufferedImage, "png", file);
-                showStatus("QR Code saved: " + file.getAbsolutePath(), false);
-            } catch (IOException e) {
-                showStatus("Error saving: " + e.getMessage(), true);
+        if (file == null) return;
+
+        boolean pdf = currentSymbols != null && (file.getName().toLowerCase().endsWith(".pdf")
+                || chooser.getSelectedExtensionFilter() != null
+                && chooser.getSelectedExtensionFilter().getExtensions().contains("*.pdf"));
+        if (pdf) {
+            if (!file.getName().toLowerCase().endsWith(".pdf")) {
+                file = new File(file.getParentFile(), file.getName().replaceFirst("\\.png$", "") + ".pdf");
             }
+            List<BufferedImage> symbols = currentSymbols;
+            whenExported(QRImageExporter.writeAsync(file, target -> QRSheetExporter.writePdf(symbols, target)),
+                    saved -> "QR Codes saved: " + saved.getAbsolutePath(), "Error saving: ");
+            return;
         }
+
+        showStatus("Saving…", false);
+        whenExported(QRImageExporter.writeAsync(file, writer),
+                saved -> "QR Code saved: " + saved.getAbsolutePath(), "Error saving: ");
+    }
+
+    /** Reports the outcome of a background export on the FX thread */
+    private void whenExported(CompletableFuture<File> export, Function<File, String> success,
+                              String errorPrefix) {
+        export.whenComplete((file, error) -> Platform.runLater(() -> {
+            if (error == null) {
+                showStatus(success.apply(file), false);
+            } else {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                showStatus(errorPrefix + cause.getMessage(), true);
+            }
+        }));
     }
 
     private void showStatus(String msg, boolean error) {
@@ -0,0 +1,218 @@
+package org.example.quickscan;
+
+import com.google.zxing.common.BitMatrix;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * QRImageExporter
+ * - Writes a code straight from its module matrix (one bit per module) as a 1-bit PNG:
+ *   grayscale for black on white, otherwise a two-entry palette
+ * - Builds FX images for display and the clipboard from the same modules, without snapshots
+ * - Writes files on a single background thread; callers get a CompletableFuture
+ * - Shares go through one temp file per session, overwritten each time and deleted on exit
+ */
+public final class QRImageExporter {
+
+    /** Deflate level for exports; on 1-bit codes level 9 is no smaller than 6 (see ExportBenchmark) */
+    public static final int DEFAULT_DEFLATE_LEVEL = 6;
+
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int COLOR_TYPE_GRAY = 0;
+    private static final int COLOR_TYPE_INDEXED = 3;
+
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "qr-export");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static File shareFile;
+
+    private QRImageExporter() { /* no instantiation */ }
+
+    /** Pixels per module so the exported code is at least QRCodeRenderer.SIZE wide */
+    public static int scaleFor(BitMatrix modules) {
+        return (QRCodeRenderer.SIZE + modules.getWidth() - 1) / modules.getWidth();
+    }
+
+    /** ---------- PNG ---------- */
+
+    /** Encodes the modules, each drawn as scale x scale pixels, as a 1-bit PNG */
+    public static byte[] toPng(BitMatrix modules, int scale, int foregroundRgb, int backgroundRgb, int deflateLevel) {
+        int width = modules.getWidth() * scale;
+        int height = modules.getHeight() * scale;
+        boolean gray = (foregroundRgb & 0xFFFFFF) == 0x000000 && (backgroundRgb & 0xFFFFFF) == 0xFFFFFF;
+
+        try {
+            ByteArrayOutputStream png = new ByteArrayOutputStream(1024);
+            png.write(PNG_SIGNATURE);
+
+            ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+            DataOutputStream headerData = new DataOutputStream(header);
+            headerData.writeInt(width);
+            headerData.writeInt(height);
+            headerData.writeByte(1);                                         // bit depth
+            headerData.writeByte(gray ? COLOR_TYPE_GRAY : COLOR_TYPE_INDEXED);
+            headerData.writeByte(0);                                         // deflate
+            headerData.writeByte(0);                                         // adaptive filtering
+            headerData.writeByte(0);                                         // no interlace
+            writeChunk(png, "IHDR", header.toByteArray());
+
+            // gray: 0 = black, 1 = white; indexed: 0 = background, 1 = foreground
+            if (!gray) {
+                writeChunk(png, "PLTE", new byte[]{
+                        (byte) (backgroundRgb >> 16), (byte) (backgroundRgb >> 8), (byte) backgroundRgb,
+                        (byte) (foregroundRgb >> 16), (byte) (foregroundRgb >> 8), (byte) foregroundRgb});
+            }
+
+            writeChunk(png, "IDAT", compressRows(modules, scale, width, gray, deflateLevel));
+            writeChunk(png, "IEND", new byte[0]);
+            return png.toByteArray();
+        } catch (IOException e) {
+            // only in-memory streams are involved
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] compressRows(BitMatrix modules, int scale, int width, boolean gray, int deflateLevel)
+            throws IOException {
+        int rowBytes = (width + 7) / 8;
+        byte[] row = new byte[1 + rowBytes];   // leading filter byte 0: rows are stored unfiltered
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(rowBytes * 4);
+        Deflater deflater = new Deflater(deflateLevel);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(compressed, deflater, 8192)) {
+            for (int my = 0; my < modules.getHeight(); my++) {
+                Arrays.fill(row, (byte) 0);
+                for (int x = 0; x < width; x++) {
+                    // gray sets the bit for light pixels, the palette for dark ones
+                    if (modules.get(x / scale, my) != gray) {
+                        row[1 + (x >> 3)] |= (byte) (0x80 >>> (x & 7));
+                    }
+                }
+                // every module row is repeated scale times; deflate turns the copies into back-references
+                for (int r = 0; r < scale; r++) {
+                    out.write(row);
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+        return compressed.toByteArray();
+    }
+
+    private static void writeChunk(OutputStream out, String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+
+        DataOutputStream chunk = new DataOutputStream(out);
+        chunk.writeInt(data.length);
+        chunk.write(typeBytes);
+        chunk.write(data);
+        chunk.writeInt((int) crc.getValue());
+    }
+
+    /** ---------- ASYNCHRONOUS WRITES ---------- */
+
+    /** Writes one export into a file */
+    @FunctionalInterface
+    public interface FileWriter {
+        void write(File file) throws IOException;
+    }
+
+    /** The modules as a 1-bit PNG at the default scale and deflate level */
+    public static FileWriter png(BitMatrix modules, int foregroundRgb, int backgroundRgb) {
+        return file -> Files.write(file.toPath(),
+                toPng(modules, scaleFor(modules), foregroundRgb, backgroundRgb, DEFAULT_DEFLATE_LEVEL));
+    }
+
+    /** An already rendered image (e.g. a labelled multi-QR sheet) as PNG */
+    public static FileWriter image(BufferedImage image) {
+        return file -> ImageIO.write(image, "png", file);
+    }
+
+    /** Runs the writer on the export thread */
+    public static CompletableFuture<File> writeAsync(File file, FileWriter writer) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                writer.write(file);
+                return file;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, WRITER);
+    }
+
+    /**
+     * Writes into the session's share file on the export thread. If the file cannot
+     * be overwritten (e.g. a viewer still holds it open), a new one takes its place.
+     */
+    public static CompletableFuture<File> shareAsync(FileWriter writer) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                File file = shareFile(false);
+                try {
+                    writer.write(file);
+                } catch (IOException e) {
+                    file = shareFile(true);
+                    writer.write(file);
+                }
+                return file;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, WRITER);
+    }
+
+    private static File shareFile(boolean replace) throws IOException {
+        // only touched on the export thread
+        if (replace || shareFile == null || !shareFile.exists()) {
+            shareFile = File.createTempFile("QuickScan_QR_", ".png");
+            shareFile.deleteOnExit();
+        }
+        return shareFile;
+    }
+
+    /** ---------- FX IMAGES ---------- */
+
+    /** The modules as an FX image, each module scale x scale pixels */
+    public static WritableImage toFxImage(BitMatrix modules, int scale, int foregroundRgb, int backgroundRgb) {
+        int width = modules.getWidth() * scale;
+        int height = modules.getHeight() * scale;
+        int foreground = 0xFF000000 | foregroundRgb;
+        int background = 0xFF000000 | backgroundRgb;
+
+        WritableImage image = new WritableImage(width, height);
+        int[] row = new int[width];
+        for (int my = 0; my < modules.getHeight(); my++) {
+            for (int x = 0; x < width; x++) {
+                row[x] = modules.get(x / scale, my) ? foreground : background;
+            }
+            for (int r = 0; r < scale; r++) {
+                image.getPixelWriter().setPixels(0, my * scale + r, width, 1,
+                        PixelFormat.getIntArgbInstance(), row, 0, width);
+            }
+        }
+        return image;
+    }
+}
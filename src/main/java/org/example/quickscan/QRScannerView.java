@@ -1,8 +1,5 @@
 package org.example.quickscan;
 
-import com.google.zxing.*;
-import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
-import com.google.zxing.common.HybridBinarizer;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -17,20 +14,21 @@ import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
 import javafx.stage.FileChooser;
 
-import javax.imageio.ImageIO;
 import java.awt.Desktop;
-import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
-import java.util.EnumMap;
-import java.util.Map;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 
 public class QRScannerView extends VBox {
 
     private final MainView mainView;
     private final ImageView qrImageView;
+    private final Label resultLabel;
     private final VBox resultBox;
+    private final BatchScanPane batchPane;
     private final Label statusLabel;
     private String currentScanResult;
 
@@ -67,12 +65,17 @@ public class QRScannerView extends VBox {
         setupDragAndDrop();
 
         // Result area
-        Label resultLabel = new Label("Scan Result:");
+        resultLabel = new Label("Scan Result:");
         resultLabel.setStyle("-fx-text-fill: white; -fx-font-size: 16px; -fx-font-weight: bold;");
         resultBox = new VBox(10);
         resultBox.setAlignment(Pos.CENTER);
         VBox.setVgrow(resultBox, Priority.ALWAYS);
 
+        // Batch results (multi-file drops); double-clicking a row shows it in the single result area
+        batchPane = new BatchScanPane(this::openBatchResult);
+        VBox.setVgrow(batchPane, Priority.ALWAYS);
+        setBatchVisible(false);
+
         // Status
         statusLabel = new Label("");
         statusLabel.getStyleClass().add("status-label");
@@ -84,6 +87,7 @@ public class QRScannerView extends VBox {
                 qrImageView,
                 resultLabel,
                 resultBox,
+                batchPane,
                 statusLabel
         );
     }
@@ -95,8 +99,41 @@ public class QRScannerView extends VBox {
         chooser.getExtensionFilters().add(
                 new FileChooser.ExtensionFilter("Image Files", "*.png", "*.jpg", "*.jpeg", "*.gif", "*.bmp")
         );
-        File file = chooser.showOpenDialog(this.getScene().getWindow());
-        if (file != null) scanQRFromFile(file);
+        List<File> files = chooser.showOpenMultipleDialog(this.getScene().getWindow());
+        if (files != null) scanFiles(files);
+    }
+
+    /** One plain file is shown directly; several files or any folder go to the batch table */
+    private void scanFiles(List<File> files) {
+        if (files.size() == 1 && files.get(0).isFile()) {
+            setBatchVisible(false);
+            scanQRFromFile(files.get(0));
+        } else if (!files.isEmpty()) {
+            scanBatch(files);
+        }
+    }
+
+    private void scanBatch(List<File> files) {
+        // results are recorded from background threads, so the location must be chosen first
+        HistoryManager.getInstance().ensureHistoryLocationSet(this);
+        setSingleResultVisible(false);
+        setBatchVisible(true);
+        resultBox.getChildren().clear();
+        batchPane.scan(files);
+        showSuccess("Scanning " + files.size() + " item(s) in the background…");
+    }
+
+    private void setBatchVisible(boolean visible) {
+        if (!visible) batchPane.cancel();
+        batchPane.setVisible(visible);
+        batchPane.setManaged(visible);
+    }
+
+    private void setSingleResultVisible(boolean visible) {
+        for (javafx.scene.Node node : List.of(qrImageView, resultLabel, resultBox)) {
+            node.setVisible(visible);
+            node.setManaged(visible);
+        }
     }
 
     /** ---------- DRAG & DROP SUPPORT ---------- */
@@ -111,10 +148,8 @@ public class QRScannerView extends VBox {
         this.setOnDragDropped(event -> {
             Dragboard dragboard = event.getDragboard();
             if (dragboard.hasFiles()) {
-                File file = dragboard.getFiles().get(0);
-                if (file.exists()) {
-                    scanQRFromFile(file);
-                }
+                List<File> files = dragboard.getFiles().stream().filter(File::exists).toList();
+                scanFiles(files);
             }
             event.setDropCompleted(true);
             event.consume();
@@ -123,12 +158,13 @@ public class QRScannerView extends VBox {
 
     /** ---------- MAIN QR SCAN LOGIC ---------- */
     private void scanQRFromFile(File file) {
+        setSingleResultVisible(true);
         try {
             Image image = new Image(file.toURI().toString());
             qrImageView.setImage(image);
 
-            BufferedImage bufferedImage = ImageIO.read(file);
-            String result = decodeQRCode(bufferedImage);
+            // repeat scans of the same image bytes are answered from the decode cache
+            String result = QRDecoder.decodeFile(file.toPath());
 
             resultBox.getChildren().clear();
             currentScanResult = result;
@@ -138,52 +174,115 @@ public class QRScannerView extends VBox {
                 return;
             }
 
-            // Handle encryption
-            if (result.startsWith("ENCRYPTED:")) {
-                handleEncryptedQR(result.substring(10));
+            if (StructuredAppend.isPart(result)) {
+                collectParts(file, result);
                 return;
             }
 
-            displayResult(result);
-
-            // Save history (offline)
-            HistoryManager.getInstance().ensureHistoryLocationSet(this);
-            HistoryManager.getInstance().addHistoryEntry(
-                    "Scanned",
-                    determineContentType(result),
-                    result,
-                    false
-            );
+            showDecoded(result, true);
 
         } catch (IOException e) {
             showError("Error reading image: " + e.getMessage());
+        } catch (Exception e) {
+            showError("Error decoding QR: " + e.getMessage());
         }
     }
 
-    private String decodeQRCode(BufferedImage bufferedImage) {
-        try {
-            LuminanceSource source = new BufferedImageLuminanceSource(bufferedImage);
-            BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
+    /** Shows a batch row in the single result area; the batch already recorded it in history */
+    private void openBatchResult(ScanPipeline.ScanResult row) {
+        setSingleResultVisible(true);
+        qrImageView.setImage(new Image(row.file().toUri().toString()));
+        resultBox.getChildren().clear();
+        currentScanResult = row.text();
+
+        if (row.failed()) {
+            showError("Error reading image: " + row.error());
+        } else if (row.part() != null) {
+            showSuccess(row.part() + " received");
+        } else if (!row.found()) {
+            showError("No QR Code found in the image");
+        } else {
+            showDecoded(row.text(), false);
+        }
+    }
 
-            Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
-            hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+    /**
+     * Classifies and displays a decoded payload (from one code, a reassembled sequence
+     * or a batch row); record is false when the payload is already in history.
+     */
+    private void showDecoded(String result, boolean record) {
+        result = PayloadCompressor.expand(result);
+        currentScanResult = result;
+
+        // Handle encryption
+        if (result.startsWith("ENCRYPTED:")) {
+            handleEncryptedQR(result.substring(10), record);
+            return;
+        }
 
-            Result result = new MultiFormatReader().decode(bitmap, hints);
-            return result.getText();
-        } catch (NotFoundException e) {
-            return null;
-        } catch (Exception e) {
-            showError("Error decoding QR: " + e.getMessage());
-            return null;
+        ParsedContent parsed = ContentClassifier.getInstance().classify(result);
+        displayResult(parsed);
+        if (!record) return;
+
+        // Save history (offline)
+        HistoryManager.getInstance().ensureHistoryLocationSet(this);
+        HistoryManager.getInstance().addHistoryEntry(
+                HistoryEntry.SCANNED,
+                parsed.type().label(),
+                result,
+                false
+        );
+    }
+
+    /** ---------- MULTI-QR SEQUENCES ---------- */
+
+    /**
+     * Feeds every sequence part in the image to the assembler; a sheet completes
+     * in one scan, single codes complete over several scans in any order.
+     */
+    private void collectParts(File file, String firstPart) throws IOException {
+        List<String> texts = QRDecoder.decodeAllFile(file.toPath());
+        if (!texts.contains(firstPart)) {
+            texts = new ArrayList<>(texts);
+            texts.add(firstPart);
+        }
+
+        StructuredAppendAssembler assembler = StructuredAppendAssembler.getInstance();
+        StructuredAppendAssembler.Progress progress = assembler.addAll(texts);
+
+        if (progress == null) {
+            showError("Invalid multi-QR part");
+        } else if (progress.corrupt()) {
+            showError("Reassembled content failed its checksum — scan the codes again ❌");
+        } else if (!progress.isComplete()) {
+            currentScanResult = null;
+            showSuccess("Part " + progress.received() + " of " + progress.total()
+                    + " received — still missing: " + assembler.missing(progress.setId()));
+        } else {
+            showDecoded(progress.payload(), true);
         }
     }
 
     /** ---------- DISPLAY HELPERS ---------- */
-    private void displayResult(String result) {
+    private void displayResult(ParsedContent parsed) {
+        String result = parsed.raw();
         VBox resultContainer = new VBox(10);
         resultContainer.setAlignment(Pos.CENTER);
 
-        if (result.matches("^(https?|ftp)://.*$")) {
+        Label typeLabel = new Label(describe(parsed));
+        typeLabel.setStyle("-fx-text-fill: #00bfff; -fx-font-size: 14px;");
+        typeLabel.setWrapText(true);
+        resultContainer.getChildren().add(typeLabel);
+
+        if (parsed.type() == ContentType.FILE) {
+            Button saveButton = new Button("Save File");
+            saveButton.getStyleClass().add("copy-button");
+            saveButton.setOnAction(e -> saveFile(FilePayload.decode(result)));
+            resultContainer.getChildren().add(saveButton);
+            resultBox.getChildren().add(resultContainer);
+            showSuccess("File received ✅");
+            return;
+        } else if (parsed.type() == ContentType.URL && parsed.field("scheme") != null) {
             Hyperlink link = new Hyperlink(result);
             link.setStyle("-fx-text-fill: #1e88e5; -fx-font-size: 15px; -fx-font-weight: bold;");
             link.setOnAction(e -> {
@@ -213,6 +312,21 @@ public class QRScannerView extends VBox {
         showSuccess("QR Code scanned successfully ✅");
     }
 
+    private void saveFile(FilePayload.File received) {
+        if (received == null) return;
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Save File");
+        chooser.setInitialFileName(received.name());
+        File file = chooser.showSaveDialog(this.getScene().getWindow());
+        if (file == null) return;
+        try {
+            Files.write(file.toPath(), received.bytes());
+            showSuccess("File saved: " + file.getAbsolutePath());
+        } catch (IOException e) {
+            showError("Error saving file: " + e.getMessage());
+        }
+    }
+
     private void copyToClipboard() {
         if (currentScanResult == null || currentScanResult.isEmpty()) {
             showError("No content to copy");
@@ -227,16 +341,17 @@ public class QRScannerView extends VBox {
         showSuccess("Content copied to clipboard ✅");
     }
 
-    private String determineContentType(String content) {
-        if (content == null) return "Unknown";
-        if (content.matches("^(https?|ftp)://.*$")) return "URL";
-        if (content.contains("@") && content.contains(".")) return "Email";
-        if (content.matches("^\\d+$")) return "Number";
-        return "Text";
+    /** e.g. "Wi-Fi · ssid: Office · security: WPA" (passwords are not shown) */
+    private String describe(ParsedContent parsed) {
+        StringBuilder sb = new StringBuilder(parsed.type().label());
+        parsed.fields().forEach((key, value) -> {
+            if (!key.equals("password")) sb.append(" · ").append(key).append(": ").append(value);
+        });
+        return sb.toString();
     }
 
     /** ---------- PASSWORD PROTECTED QR ---------- */
-    private void handleEncryptedQR(String encryptedContent) {
+    private void handleEncryptedQR(String encryptedContent, boolean record) {
         Dialog<String> dialog = new Dialog<>();
         dialog.setTitle("Password Protected QR");
         dialog.setHeaderText("This QR code is password protected.");
@@ -264,17 +379,20 @@ public class QRScannerView extends VBox {
 
         dialog.showAndWait().ifPresent(password -> {
             try {
-                String decrypted = EncryptionUtil.decrypt(encryptedContent, password);
+                // compression is applied before encryption, so it is undone after decryption
+                String decrypted = PayloadCompressor.expand(EncryptionUtil.decrypt(encryptedContent, password));
                 resultBox.getChildren().clear();
                 currentScanResult = decrypted;
-                displayResult(decrypted);
+                ParsedContent parsed = ContentClassifier.getInstance().classify(decrypted);
+                displayResult(parsed);
                 showSuccess("QR Code decrypted successfully ✅");
+                if (!record) return;
 
                 // Save decrypted entry in history
                 HistoryManager.getInstance().ensureHistoryLocationSet(this);
                 HistoryManager.getInstance().addHistoryEntry(
-                        "Scanned (Decrypted)",
-                        determineContentType(decrypted),
+                        HistoryEntry.SCANNED_DECRYPTED,
+                        parsed.type().label(),
                         decrypted,
                         true
                 );
@@ -0,0 +1,130 @@
+package org.example.quickscan;
+
+import com.google.zxing.WriterException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * QRSheetExporter
+ * - Renders the symbols of a structured-append sequence in parallel
+ * - Lays them out, numbered, on a single PNG sheet or on A4 PDF pages
+ */
+public final class QRSheetExporter {
+
+    /** Pixel size of each symbol; about 4 pixels per module at the part size StructuredAppend uses */
+    public static final int SYMBOL_SIZE = 400;
+
+    private static final int LABEL_HEIGHT = 28;
+    private static final int GAP = 24;
+    private static final int PDF_COLUMNS = 2;
+    private static final int PDF_ROWS = 3;
+    private static final float PDF_MARGIN = 40;
+
+    private QRSheetExporter() { /* no instantiation */ }
+
+    /** Encodes and renders every part on the common fork-join pool */
+    public static List<BufferedImage> renderSymbols(List<String> parts, int foregroundRgb, int backgroundRgb)
+            throws WriterException {
+        try {
+            return IntStream.range(0, parts.size()).parallel()
+                    .mapToObj(i -> {
+                        try {
+                            return QRCodeRenderer.render(
+                                    QRCodeRenderer.encode(parts.get(i), SYMBOL_SIZE), foregroundRgb, backgroundRgb);
+                        } catch (WriterException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    })
+                    .toList();
+        } catch (IllegalStateException e) {
+            if (e.getCause() instanceof WriterException writerException) throw writerException;
+            throw e;
+        }
+    }
+
+    /** Lays the symbols out in a near-square grid with "i / n" under each */
+    public static BufferedImage layoutSheet(List<BufferedImage> symbols, int backgroundRgb) {
+        int count = symbols.size();
+        int columns = (int) Math.ceil(Math.sqrt(count));
+        int rows = (count + columns - 1) / columns;
+        int cellWidth = SYMBOL_SIZE + GAP;
+        int cellHeight = SYMBOL_SIZE + LABEL_HEIGHT + GAP;
+
+        BufferedImage sheet = new BufferedImage(columns * cellWidth + GAP, rows * cellHeight + GAP,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = sheet.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(new Color(backgroundRgb));
+        g.fillRect(0, 0, sheet.getWidth(), sheet.getHeight());
+        g.setColor(isDark(backgroundRgb) ? Color.WHITE : Color.BLACK);
+        g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 18));
+        FontMetrics metrics = g.getFontMetrics();
+
+        for (int i = 0; i < count; i++) {
+            int x = GAP + (i % columns) * cellWidth;
+            int y = GAP + (i / columns) * cellHeight;
+            g.drawImage(symbols.get(i), x, y, null);
+            String label = (i + 1) + " / " + count;
+            g.drawString(label, x + (SYMBOL_SIZE - metrics.stringWidth(label)) / 2, y + SYMBOL_SIZE + metrics.getAscent());
+        }
+        g.dispose();
+        return sheet;
+    }
+
+    /** Writes the symbols to an A4 PDF, six per page, numbered */
+    public static void writePdf(List<BufferedImage> symbols, File file) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDRectangle pageSize = PDRectangle.A4;
+            float cellWidth = (pageSize.getWidth() - 2 * PDF_MARGIN) / PDF_COLUMNS;
+            float cellHeight = (pageSize.getHeight() - 2 * PDF_MARGIN) / PDF_ROWS;
+            float symbolSize = Math.min(cellWidth, cellHeight - LABEL_HEIGHT) - GAP;
+            int perPage = PDF_COLUMNS * PDF_ROWS;
+
+            for (int first = 0; first < symbols.size(); first += perPage) {
+                PDPage page = new PDPage(pageSize);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    for (int i = first; i < Math.min(first + perPage, symbols.size()); i++) {
+                        int cell = i - first;
+                        float x = PDF_MARGIN + (cell % PDF_COLUMNS) * cellWidth + (cellWidth - symbolSize) / 2;
+                        float top = pageSize.getHeight() - PDF_MARGIN - (cell / PDF_COLUMNS) * cellHeight;
+                        float y = top - symbolSize;
+
+                        PDImageXObject image = LosslessFactory.createFromImage(document, symbols.get(i));
+                        content.drawImage(image, x, y, symbolSize, symbolSize);
+
+                        content.beginText();
+                        content.setFont(PDType1Font.HELVETICA_BOLD, 12);
+                        content.newLineAtOffset(x + symbolSize / 2 - 15, y - 16);
+                        content.showText((i + 1) + " / " + symbols.size());
+                        content.endText();
+                    }
+                }
+            }
+            document.save(file);
+        }
+    }
+
+    private static boolean isDark(int rgb) {
+        int r = (rgb >> 16) & 0xFF;
+        int g = (rgb >> 8) & 0xFF;
+        int b = rgb & 0xFF;
+        return r * 299 + g * 587 + b * 114 < 128_000;
+    }
+}
@@ -0,0 +1,212 @@
+package org.example.quickscan;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+
+/**
+ * RasterLuminanceSource
+ * - Drop-in replacement for ZXing's BufferedImageLuminanceSource with identical luminance bytes
+ * - Reads the common image types (INT_RGB, INT_ARGB, 3BYTE_BGR, 4BYTE_ABGR, BYTE_GRAY)
+ *   straight from the raster's backing array instead of going through getRGB per row
+ * - Packed int pixels are converted with PixelKernels (Vector API when available)
+ * - Any other image type goes through getRGB, exactly as ZXing does
+ * - Supports crop and rotation like ZXing's source, so TRY_HARDER still tries vertical 1D codes
+ *
+ * Touching the backing array makes Java2D stop caching the image in video memory;
+ * decode images are never drawn, so that does not matter here.
+ */
+public final class RasterLuminanceSource extends LuminanceSource {
+
+    private final byte[] luminances;
+    private final int dataWidth;
+    private final int left;
+    private final int top;
+
+    public RasterLuminanceSource(BufferedImage image) {
+        this(image, PixelKernels.INSTANCE);
+    }
+
+    RasterLuminanceSource(BufferedImage image, PixelKernels kernels) {
+        super(image.getWidth(), image.getHeight());
+        this.dataWidth = image.getWidth();
+        this.left = 0;
+        this.top = 0;
+        this.luminances = convert(image, kernels);
+    }
+
+    private RasterLuminanceSource(byte[] luminances, int dataWidth, int left, int top, int width, int height) {
+        super(width, height);
+        this.luminances = luminances;
+        this.dataWidth = dataWidth;
+        this.left = left;
+        this.top = top;
+    }
+
+    /** ---------- LUMINANCE SOURCE ---------- */
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        if (y < 0 || y >= getHeight()) {
+            throw new IllegalArgumentException("Requested row is outside the image: " + y);
+        }
+        int width = getWidth();
+        if (row == null || row.length < width) {
+            row = new byte[width];
+        }
+        System.arraycopy(luminances, (y + top) * dataWidth + left, row, 0, width);
+        return row;
+    }
+
+    @Override
+    public byte[] getMatrix() {
+        int width = getWidth();
+        int height = getHeight();
+        // the whole frame is returned without copying; callers must not modify it
+        if (width == dataWidth && left == 0 && top == 0 && height * width == luminances.length) {
+            return luminances;
+        }
+        byte[] matrix = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(luminances, (y + top) * dataWidth + left, matrix, y * width, width);
+        }
+        return matrix;
+    }
+
+    @Override
+    public boolean isCropSupported() {
+        return true;
+    }
+
+    @Override
+    public LuminanceSource crop(int left, int top, int width, int height) {
+        return new RasterLuminanceSource(luminances, dataWidth, this.left + left, this.top + top, width, height);
+    }
+
+    @Override
+    public boolean isRotateSupported() {
+        return true;
+    }
+
+    /** Transposes the whole luminance plane, then crops it as BufferedImageLuminanceSource does */
+    @Override
+    public LuminanceSource rotateCounterClockwise() {
+        int dataHeight = luminances.length / dataWidth;
+        byte[] rotated = new byte[luminances.length];
+        // source (x, y) lands at (y, dataWidth - 1 - x) in the rotated plane, which is dataHeight wide
+        for (int y = 0; y < dataHeight; y++) {
+            int from = y * dataWidth;
+            for (int x = 0; x < dataWidth; x++) {
+                rotated[(dataWidth - 1 - x) * dataHeight + y] = luminances[from + x];
+            }
+        }
+        return new RasterLuminanceSource(rotated, dataHeight,
+                top, dataWidth - (left + getWidth()), getHeight(), getWidth());
+    }
+
+    /** Needs Java2D interpolation, so it is left to ZXing's source on the same luminance plane */
+    @Override
+    public LuminanceSource rotateCounterClockwise45() {
+        int dataHeight = luminances.length / dataWidth;
+        BufferedImage gray = new BufferedImage(dataWidth, dataHeight, BufferedImage.TYPE_BYTE_GRAY);
+        gray.getRaster().setDataElements(0, 0, dataWidth, dataHeight, luminances);
+        return new BufferedImageLuminanceSource(gray, left, top, getWidth(), getHeight()).rotateCounterClockwise45();
+    }
+
+    /** ---------- CONVERSION ---------- */
+
+    private static byte[] convert(BufferedImage image, PixelKernels kernels) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        byte[] out = new byte[width * height];
+        Raster raster = image.getRaster();
+
+        switch (image.getType()) {
+            case BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB -> {
+                if (raster.getDataBuffer() instanceof DataBufferInt buffer
+                        && raster.getSampleModel() instanceof SinglePixelPackedSampleModel model) {
+                    boolean hasAlpha = image.getType() == BufferedImage.TYPE_INT_ARGB;
+                    int[] data = buffer.getData();
+                    for (int y = 0; y < height; y++) {
+                        kernels.argbToLuminance(data, offsetOf(raster, model.getOffset(
+                                -raster.getSampleModelTranslateX(), y - raster.getSampleModelTranslateY())),
+                                out, y * width, width, hasAlpha);
+                    }
+                    return out;
+                }
+            }
+            case BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR -> {
+                if (raster.getDataBuffer() instanceof DataBufferByte buffer
+                        && raster.getSampleModel() instanceof ComponentSampleModel model) {
+                    convertInterleaved(raster, buffer, model, image.getType() == BufferedImage.TYPE_4BYTE_ABGR, out);
+                    return out;
+                }
+            }
+            case BufferedImage.TYPE_BYTE_GRAY -> {
+                // ZXing uses gray images as they are
+                if (raster.getDataBuffer() instanceof DataBufferByte buffer
+                        && raster.getSampleModel() instanceof ComponentSampleModel model
+                        && model.getPixelStride() == 1) {
+                    byte[] data = buffer.getData();
+                    for (int y = 0; y < height; y++) {
+                        int start = rowStart(raster, model, y) + model.getBandOffsets()[0];
+                        System.arraycopy(data, start, out, y * width, width);
+                    }
+                    return out;
+                }
+            }
+            default -> { }
+        }
+
+        // anything else: let the color model produce sRGB, as BufferedImageLuminanceSource does
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            kernels.argbToLuminance(row, 0, out, y * width, width, true);
+        }
+        return out;
+    }
+
+    /** BGR and ABGR bytes; channel order comes from the sample model's band offsets */
+    private static void convertInterleaved(Raster raster, DataBufferByte buffer, ComponentSampleModel model,
+                                           boolean hasAlpha, byte[] out) {
+        int width = raster.getWidth();
+        int height = raster.getHeight();
+        byte[] data = buffer.getData();
+        int pixelStride = model.getPixelStride();
+        int[] bands = model.getBandOffsets();
+        int red = bands[0];
+        int green = bands[1];
+        int blue = bands[2];
+        int alpha = hasAlpha ? bands[3] : 0;
+
+        for (int y = 0; y < height; y++) {
+            int i = rowStart(raster, model, y);
+            for (int x = 0, o = y * width; x < width; x++, o++, i += pixelStride) {
+                if (hasAlpha && data[i + alpha] == 0) {
+                    out[o] = (byte) 0xFF;
+                } else {
+                    out[o] = (byte) ((306 * (data[i + red] & 0xFF) + 601 * (data[i + green] & 0xFF)
+                            + 117 * (data[i + blue] & 0xFF) + 0x200) >> 10);
+                }
+            }
+        }
+    }
+
+    private static int offsetOf(Raster raster, int sampleModelOffset) {
+        return raster.getDataBuffer().getOffset() + sampleModelOffset;
+    }
+
+    /** Array index of the first pixel of row y, before any band offset */
+    private static int rowStart(Raster raster, ComponentSampleModel model, int y) {
+        int x = -raster.getSampleModelTranslateX();
+        int row = y - raster.getSampleModelTranslateY();
+        return raster.getDataBuffer().getOffset() + row * model.getScanlineStride() + x * model.getPixelStride();
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.quickscan;
+
+/**
+ * Scalar PixelKernels, used when the Vector API is not available
+ * and for the tail of every vector loop.
+ */
+final class ScalarPixelKernels extends PixelKernels {
+
+    @Override
+    void argbToLuminance(int[] argb, int argbOffset, byte[] luminances, int offset, int count, boolean hasAlpha) {
+        argbToLuminanceTail(argb, argbOffset, luminances, offset, 0, count, hasAlpha);
+    }
+
+    @Override
+    void columnStats(byte[] luminances, int offset, int stride, int width, short[] sums, byte[] mins, byte[] maxes) {
+        columnStatsTail(luminances, offset, stride, 0, width, sums, mins, maxes);
+    }
+
+    @Override
+    void thresholdRow(byte[] luminances, int offset, byte[] thresholds, int width, int[] bits) {
+        thresholdRowTail(luminances, offset, thresholds, 0, width, bits);
+    }
+
+    @Override
+    String describe() {
+        return "scalar";
+    }
+
+    static void argbToLuminanceTail(int[] argb, int argbOffset, byte[] luminances, int offset,
+                                    int from, int count, boolean hasAlpha) {
+        for (int i = from; i < count; i++) {
+            luminances[offset + i] = (byte) luminance(argb[argbOffset + i], hasAlpha);
+        }
+    }
+
+    static void columnStatsTail(byte[] luminances, int offset, int stride, int from, int width,
+                                short[] sums, byte[] mins, byte[] maxes) {
+        for (int x = from; x < width; x++) {
+            int sum = 0;
+            int min = 0xFF;
+            int max = 0;
+            for (int y = 0, i = offset + x; y < VectorHybridBinarizer.BLOCK_SIZE; y++, i += stride) {
+                int pixel = luminances[i] & 0xFF;
+                sum += pixel;
+                if (pixel < min) min = pixel;
+                if (pixel > max) max = pixel;
+            }
+            sums[x] = (short) sum;
+            mins[x] = (byte) min;
+            maxes[x] = (byte) max;
+        }
+    }
+
+    static void thresholdRowTail(byte[] luminances, int offset, byte[] thresholds, int from, int width, int[] bits) {
+        for (int x = from; x < width; x++) {
+            if ((luminances[offset + x] & 0xFF) <= (thresholds[x] & 0xFF)) {
+                bits[x >> 5] |= 1 << (x & 0x1F);
+            }
+        }
+    }
+}
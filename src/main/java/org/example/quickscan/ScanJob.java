@@ -0,0 +1,486 @@
+package org.example.quickscan;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * ScanJob
+ * - A batch scan split into chunks of image paths, kept in a directory that every worker can reach
+ *   (a local folder for several JVMs on one machine, or a shared mount for several machines)
+ * - Workers claim a chunk by creating its lease file and renew the lease while they work on it
+ * - A lease that is not renewed in time expires and the chunk can be claimed by another worker
+ * - Each finished chunk leaves a history file and a stats file; the stats file is the done marker
+ *
+ * Layout:
+ *   job.properties               image root, chunk size, file and chunk counts
+ *   chunks/chunk-NNNNN.txt        image paths relative to the root, one per line
+ *   leases/chunk-NNNNN.lease      worker id and expiry time (epoch millis)
+ *   results/chunk-NNNNN.history   history lines of the codes found
+ *   results/chunk-NNNNN.stats     per-chunk counts and timings
+ *   merged.txt                    merge log: "<chunk> start <history size>" then "<chunk> done"
+ *
+ * Leases only keep workers from doing the same work twice; they are not needed
+ * for correctness. A chunk processed twice (a worker that was presumed dead,
+ * or two workers racing on an expired lease) writes equivalent result files,
+ * and merging goes by chunk, so each chunk reaches the history once.
+ * Expiry compares wall clocks, so machines sharing a job need roughly synchronized clocks.
+ * Worker ids may contain characters such as ':' that some file systems reject,
+ * so file names use a sanitized form.
+ */
+public final class ScanJob {
+
+    private static final String JOB_FILE = "job.properties";
+    private static final String MERGED_FILE = "merged.txt";
+    private static final String CHUNK_PREFIX = "chunk-";
+
+    /** A claim on one chunk */
+    public record Lease(String chunk, String worker, long expiresAt) {
+
+        public boolean expired(long now) {
+            return now > expiresAt;
+        }
+    }
+
+    /** Counts and timings of one finished chunk */
+    public record ChunkStats(String chunk, String worker, int files, int found, int failed,
+                             long startMillis, long finishMillis, long decodeNanos) { }
+
+    private final Path directory;
+    private final Path imageRoot;
+    private final int chunkSize;
+    private final int fileCount;
+    private final int chunkCount;
+
+    private ScanJob(Path directory, Properties properties) {
+        this.directory = directory;
+        this.imageRoot = Paths.get(properties.getProperty("imageRoot"));
+        this.chunkSize = Integer.parseInt(properties.getProperty("chunkSize"));
+        this.fileCount = Integer.parseInt(properties.getProperty("files"));
+        this.chunkCount = Integer.parseInt(properties.getProperty("chunks"));
+    }
+
+    /** ---------- CREATION ---------- */
+
+    /** Lists every image under imageRoot and splits the list into chunks in a new job directory */
+    public static ScanJob create(Path directory, Path imageRoot, int chunkSize) throws IOException {
+        if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be at least 1");
+        Path root = imageRoot.toAbsolutePath().normalize();
+        if (!Files.isDirectory(root)) throw new IOException("Not a directory: " + root);
+        Path dir = directory.toAbsolutePath().normalize();
+        if (Files.exists(dir.resolve(JOB_FILE))) throw new IOException("Job already exists: " + dir);
+
+        List<String> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(ScanPipeline::isImageFile)
+                    .map(p -> root.relativize(p).toString())
+                    .sorted()
+                    .toList();
+        }
+
+        Files.createDirectories(dir.resolve("chunks"));
+        Files.createDirectories(dir.resolve("leases"));
+        Files.createDirectories(dir.resolve("results"));
+
+        int chunks = (files.size() + chunkSize - 1) / chunkSize;
+        for (int i = 0; i < chunks; i++) {
+            List<String> chunk = files.subList(i * chunkSize, Math.min(files.size(), (i + 1) * chunkSize));
+            Files.write(dir.resolve("chunks").resolve(chunkId(i) + ".txt"), chunk, StandardCharsets.UTF_8);
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty("imageRoot", root.toString());
+        properties.setProperty("chunkSize", Integer.toString(chunkSize));
+        properties.setProperty("files", Integer.toString(files.size()));
+        properties.setProperty("chunks", Integer.toString(chunks));
+        // written last: a job without it is incomplete and cannot be opened
+        writeAtomically(dir.resolve(JOB_FILE), out -> properties.store(out, "QuickScan distributed scan job"));
+        return new ScanJob(dir, properties);
+    }
+
+    public static ScanJob open(Path directory) throws IOException {
+        Path dir = directory.toAbsolutePath().normalize();
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(dir.resolve(JOB_FILE), StandardCharsets.UTF_8)) {
+            properties.load(in);
+        } catch (NoSuchFileException e) {
+            throw new IOException("Not a scan job (no " + JOB_FILE + "): " + dir);
+        }
+        return new ScanJob(dir, properties);
+    }
+
+    /** ---------- CHUNKS ---------- */
+
+    public Path directory() {
+        return directory;
+    }
+
+    public Path imageRoot() {
+        return imageRoot;
+    }
+
+    public int chunkSize() {
+        return chunkSize;
+    }
+
+    public int fileCount() {
+        return fileCount;
+    }
+
+    public List<String> chunkIds() {
+        List<String> ids = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            ids.add(chunkId(i));
+        }
+        return ids;
+    }
+
+    /** Absolute paths of the images in a chunk */
+    public List<Path> files(String chunk) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String line : Files.readAllLines(directory.resolve("chunks").resolve(chunk + ".txt"), StandardCharsets.UTF_8)) {
+            if (!line.isEmpty()) files.add(imageRoot.resolve(line));
+        }
+        return files;
+    }
+
+    public boolean isDone(String chunk) {
+        return Files.exists(statsFile(chunk));
+    }
+
+    private static String chunkId(int index) {
+        return String.format("%s%05d", CHUNK_PREFIX, index);
+    }
+
+    /** ---------- LEASES ---------- */
+
+    /**
+     * Claims a chunk for leaseMillis. A free chunk is claimed by creating its
+     * lease file; a chunk whose lease has expired is taken over. Returns null if
+     * another worker holds a live lease or wins the race for the chunk.
+     */
+    public Lease tryClaim(String chunk, String worker, long leaseMillis) throws IOException {
+        Path file = leaseFile(chunk);
+        Lease lease = new Lease(chunk, worker, System.currentTimeMillis() + leaseMillis);
+        if (createLease(file, lease)) return lease;
+
+        Lease current = readLease(chunk, leaseMillis);
+        if (current == null) {
+            // released between our attempt and the read
+            return createLease(file, lease) ? lease : null;
+        }
+        if (!current.expired(System.currentTimeMillis())) return null;
+
+        // move the expired lease aside; of several workers taking over, only one rename succeeds
+        Path stale = file.resolveSibling(file.getFileName() + ".stale-" + fileSafe(worker));
+        try {
+            Files.move(file, stale, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try {
+            Lease moved = parseLease(chunk, Files.readString(stale, StandardCharsets.UTF_8));
+            if (moved != null && !moved.equals(current)) {
+                // someone renewed or re-claimed the chunk after our read: put their lease back
+                createLease(file, moved);
+                return null;
+            }
+        } finally {
+            Files.deleteIfExists(stale);
+        }
+        return createLease(file, lease) ? lease : null;
+    }
+
+    /**
+     * Extends a lease held by this worker. Returns the renewed lease, or null
+     * if the lease has been taken over in the meantime.
+     * Uses the same move-aside protocol as a takeover, so a renewal never
+     * overwrites a lease another worker claimed after our last look; if one
+     * claims the chunk while the file is moved aside, it keeps it and we step down.
+     */
+    public Lease renew(Lease lease, long leaseMillis) throws IOException {
+        Path file = leaseFile(lease.chunk());
+        Path aside = file.resolveSibling(file.getFileName() + ".renew-" + fileSafe(lease.worker()));
+        try {
+            Files.move(file, aside, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        try {
+            Lease moved = parseLease(lease.chunk(), Files.readString(aside, StandardCharsets.UTF_8));
+            if (moved == null || !moved.worker().equals(lease.worker())) {
+                // taken over since our last renewal: put the new owner's lease back
+                if (moved != null) createLease(file, moved);
+                return null;
+            }
+        } finally {
+            Files.deleteIfExists(aside);
+        }
+        Lease renewed = new Lease(lease.chunk(), lease.worker(), System.currentTimeMillis() + leaseMillis);
+        return createLease(file, renewed) ? renewed : null;
+    }
+
+    /** Deletes the lease if this worker still holds it */
+    public void release(Lease lease) throws IOException {
+        Lease current = readLease(lease.chunk(), 0);
+        if (current != null && current.worker().equals(lease.worker())) {
+            Files.deleteIfExists(leaseFile(lease.chunk()));
+        }
+    }
+
+    /**
+     * The lease on a chunk, or null if there is none. A lease file that cannot be parsed
+     * (one being written without hard-link support) counts as live for leaseMillis after
+     * its modification time, so it is not taken over the moment it is created.
+     */
+    public Lease readLease(String chunk, long leaseMillis) throws IOException {
+        Path file = leaseFile(chunk);
+        try {
+            Lease lease = parseLease(chunk, Files.readString(file, StandardCharsets.UTF_8));
+            if (lease != null) return lease;
+            return new Lease(chunk, "?", Files.getLastModifiedTime(file).toMillis() + leaseMillis);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates the lease file only if it does not exist. The content is written to a
+     * temp file and hard-linked into place, so no reader sees a partial lease.
+     */
+    private boolean createLease(Path file, Lease lease) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), fileSafe(lease.worker()) + "-", ".tmp");
+        try {
+            Files.writeString(temp, formatLease(lease), StandardCharsets.UTF_8);
+            Files.createLink(file, temp);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } catch (UnsupportedOperationException e) {
+            // no hard links on this file system: create then write
+            try {
+                Files.writeString(file, formatLease(lease), StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW,
+                        StandardOpenOption.WRITE);
+                return true;
+            } catch (FileAlreadyExistsException alreadyClaimed) {
+                return false;
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path leaseFile(String chunk) {
+        return directory.resolve("leases").resolve(chunk + ".lease");
+    }
+
+    /** The worker id with anything but letters, digits, '.', '_' and '-' replaced, for file names */
+    private static String fileSafe(String worker) {
+        return worker.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private static String formatLease(Lease lease) {
+        return lease.worker() + "\n" + lease.expiresAt() + "\n";
+    }
+
+    private static Lease parseLease(String chunk, String content) {
+        String[] lines = content.split("\n");
+        if (lines.length < 2) return null;
+        try {
+            return new Lease(chunk, lines[0], Long.parseLong(lines[1].strip()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** ---------- RESULTS ---------- */
+
+    /** Writes a finished chunk's history lines, then its stats file, which marks the chunk done */
+    public void writeResult(ChunkStats stats, List<HistoryEntry> entries) throws IOException {
+        StringBuilder history = new StringBuilder();
+        for (HistoryEntry entry : entries) {
+            history.append(entry.format());
+        }
+        writeAtomically(historyFile(stats.chunk()), out -> out.write(history.toString()));
+
+        Properties properties = new Properties();
+        properties.setProperty("worker", stats.worker());
+        properties.setProperty("files", Integer.toString(stats.files()));
+        properties.setProperty("found", Integer.toString(stats.found()));
+        properties.setProperty("failed", Integer.toString(stats.failed()));
+        properties.setProperty("start", Long.toString(stats.startMillis()));
+        properties.setProperty("finish", Long.toString(stats.finishMillis()));
+        properties.setProperty("decodeNanos", Long.toString(stats.decodeNanos()));
+        writeAtomically(statsFile(stats.chunk()), out -> properties.store(out, null));
+    }
+
+    /** Stats of a finished chunk, or null if it is not done */
+    public ChunkStats readStats(String chunk) throws IOException {
+        Properties properties = new Properties();
+        try (Reader in = Files.newBufferedReader(statsFile(chunk), StandardCharsets.UTF_8)) {
+            properties.load(in);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        return new ChunkStats(chunk,
+                properties.getProperty("worker"),
+                Integer.parseInt(properties.getProperty("files")),
+                Integer.parseInt(properties.getProperty("found")),
+                Integer.parseInt(properties.getProperty("failed")),
+                Long.parseLong(properties.getProperty("start")),
+                Long.parseLong(properties.getProperty("finish")),
+                Long.parseLong(properties.getProperty("decodeNanos")));
+    }
+
+    public List<HistoryEntry> readEntries(String chunk) throws IOException {
+        List<HistoryEntry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(historyFile(chunk), StandardCharsets.UTF_8)) {
+            HistoryEntry entry = HistoryEntry.parse(line);
+            if (entry != null) entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * Appends the entries of every finished chunk not merged yet to the current
+     * history file (HistoryManager). Can run while workers are still busy; a lock
+     * keeps concurrent merges apart. Returns the number of chunks merged.
+     *
+     * Each chunk is logged in merged.txt before its entries are appended (with the
+     * history file's size at that point) and again afterwards. A merge interrupted
+     * between the two is finished on the next run: entries already in the history
+     * file after the logged size are not appended again.
+     */
+    public int mergeInto(HistoryManager history) throws IOException {
+        Path mergedFile = directory.resolve(MERGED_FILE);
+        Path historyFile = Paths.get(history.getHistoryFilePath());
+        try (FileChannel channel = FileChannel.open(mergedFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.lock();
+            try {
+                Map<String, Long> started = new HashMap<>();
+                Set<String> merged = readMergeLog(mergedFile, started);
+                int count = 0;
+                for (String chunk : chunkIds()) {
+                    if (merged.contains(chunk) || !isDone(chunk)) continue;
+                    List<HistoryEntry> entries = readEntries(chunk);
+                    Long offset = started.get(chunk);
+                    if (offset != null) {
+                        entries = notYetAppended(entries, historyFile, offset);
+                    } else {
+                        appendLog(channel, chunk + " start " + Files.size(historyFile));
+                    }
+                    history.addHistoryEntries(entries);
+                    appendLog(channel, chunk + " done");
+                    count++;
+                }
+                return count;
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    /** Chunks merged completely; chunks only started go into started with their history offset */
+    private static Set<String> readMergeLog(Path mergedFile, Map<String, Long> started) throws IOException {
+        Set<String> merged = new HashSet<>();
+        if (!Files.exists(mergedFile)) return merged;
+        for (String line : Files.readAllLines(mergedFile, StandardCharsets.UTF_8)) {
+            String[] parts = line.split(" ");
+            if (parts.length == 3 && parts[1].equals("start")) {
+                started.put(parts[0], Long.parseLong(parts[2]));
+            } else if (parts.length == 2 && parts[1].equals("done")) {
+                merged.add(parts[0]);
+            }
+        }
+        return merged;
+    }
+
+    private static void appendLog(FileChannel channel, String line) throws IOException {
+        channel.position(channel.size());
+        channel.write(StandardCharsets.UTF_8.encode(line + "\n"));
+        channel.force(false);
+    }
+
+    /**
+     * Removes from entries those already written to the history file after offset by an
+     * interrupted merge. A cut-off last line is ended first so the next append starts cleanly.
+     */
+    private static List<HistoryEntry> notYetAppended(List<HistoryEntry> entries, Path historyFile, long offset)
+            throws IOException {
+        long size = Files.size(historyFile);
+        if (size <= offset) return entries;
+
+        byte[] tail;
+        try (InputStream in = Files.newInputStream(historyFile)) {
+            in.skipNBytes(offset);
+            tail = in.readAllBytes();
+        }
+        if (tail.length > 0 && tail[tail.length - 1] != '\n') {
+            Files.write(historyFile, new byte[]{'\n'}, StandardOpenOption.APPEND);
+        }
+
+        // counted, since a chunk can hold identical entries (the same code in two images);
+        // dates are ignored because a chunk scanned again in the meantime has newer ones
+        Map<HistoryEntry, Integer> present = new HashMap<>();
+        for (String line : new String(tail, StandardCharsets.UTF_8).split("\n")) {
+            HistoryEntry entry = HistoryEntry.parse(line);
+            if (entry != null) present.merge(undated(entry), 1, Integer::sum);
+        }
+        List<HistoryEntry> missing = new ArrayList<>();
+        for (HistoryEntry entry : entries) {
+            if (present.merge(undated(entry), -1, Integer::sum) < 0) missing.add(entry);
+        }
+        return missing;
+    }
+
+    private static HistoryEntry undated(HistoryEntry entry) {
+        return new HistoryEntry(entry.action(), entry.encrypted(), entry.type(), entry.content(), "");
+    }
+
+    public Set<String> mergedChunks() throws IOException {
+        return readMergeLog(directory.resolve(MERGED_FILE), new HashMap<>());
+    }
+
+    private Path historyFile(String chunk) {
+        return directory.resolve("results").resolve(chunk + ".history");
+    }
+
+    private Path statsFile(String chunk) {
+        return directory.resolve("results").resolve(chunk + ".stats");
+    }
+
+    /** ---------- FILES ---------- */
+
+    @FunctionalInterface
+    private interface Content {
+        void write(Writer out) throws IOException;
+    }
+
+    /** Writes to a temp file in the same directory and renames it over the target */
+    private static void writeAtomically(Path file, Content content) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                content.write(out);
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.quickscan;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ScanJobWorker
+ * - Works through the chunks of a ScanJob until every chunk is done
+ * - Claims a free chunk, or one whose lease expired because its worker died or stalled
+ * - Renews the lease from a heartbeat thread every third of the lease time while decoding
+ * - Decodes each chunk through a ScanPipeline and writes the chunk's results to the job
+ *
+ * Workers start at different chunks (by worker id) so they rarely race for the same lease.
+ * A worker that finds nothing to claim while other workers still hold leases waits and
+ * retries, so it can take over if one of them dies.
+ */
+public final class ScanJobWorker implements AutoCloseable {
+
+    public static final String HISTORY_ACTION = "Scanned (Distributed)";
+    public static final long DEFAULT_LEASE_MS = 30_000;
+
+    /** Totals of one worker run */
+    public record Summary(int chunks, int files, int found, int failed, long millis) { }
+
+    private final ScanJob job;
+    private final String workerId;
+    private final long leaseMillis;
+    private final ScanPipeline pipeline;
+    private final ScheduledExecutorService heartbeat;
+
+    // the lease being worked on; replaced on every renewal, null once lost
+    private final AtomicReference<ScanJob.Lease> current = new AtomicReference<>();
+
+    public ScanJobWorker(ScanJob job, String workerId, int threads, long leaseMillis) {
+        this.job = job;
+        this.workerId = workerId;
+        this.leaseMillis = leaseMillis;
+        this.pipeline = new ScanPipeline(threads);
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "lease-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1, leaseMillis / 3);
+        heartbeat.scheduleAtFixedRate(this::renew, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /** Processes chunks until the whole job is done */
+    public Summary run() throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+        List<String> chunks = job.chunkIds();
+        int offset = chunks.isEmpty() ? 0 : Math.floorMod(workerId.hashCode(), chunks.size());
+        int doneChunks = 0;
+        int files = 0;
+        int found = 0;
+        int failed = 0;
+
+        while (true) {
+            boolean pending = false;
+            boolean worked = false;
+            for (int i = 0; i < chunks.size(); i++) {
+                String chunk = chunks.get((offset + i) % chunks.size());
+                if (job.isDone(chunk)) continue;
+                pending = true;
+
+                ScanJob.Lease lease = job.tryClaim(chunk, workerId, leaseMillis);
+                if (lease == null) continue;
+                if (job.isDone(chunk)) {
+                    // its worker finished and released it between our check and the claim
+                    job.release(lease);
+                    continue;
+                }
+                ScanJob.ChunkStats stats = process(lease);
+                worked = true;
+                doneChunks++;
+                files += stats.files();
+                found += stats.found();
+                failed += stats.failed();
+                System.out.printf("%s %s: %d files, %d codes, %d errors in %,d ms%n", workerId, chunk,
+                        stats.files(), stats.found(), stats.failed(), stats.finishMillis() - stats.startMillis());
+            }
+            if (!pending) break;
+            // everything left is leased by others: wait, then check for finished or expired leases
+            if (!worked) Thread.sleep(Math.max(50, Math.min(1000, leaseMillis / 4)));
+        }
+        return new Summary(doneChunks, files, found, failed, System.currentTimeMillis() - start);
+    }
+
+    private ScanJob.ChunkStats process(ScanJob.Lease lease) throws IOException {
+        current.set(lease);
+        long start = System.currentTimeMillis();
+        try {
+            List<CompletableFuture<ScanPipeline.ScanResult>> futures = new ArrayList<>();
+            for (Path file : job.files(lease.chunk())) {
+                futures.add(pipeline.submit(file));
+            }
+
+            List<HistoryEntry> entries = new ArrayList<>();
+            int found = 0;
+            int failed = 0;
+            long decodeNanos = 0;
+            for (CompletableFuture<ScanPipeline.ScanResult> future : futures) {
+                ScanPipeline.ScanResult result = future.join();
+                decodeNanos += result.nanos();
+                if (result.failed()) {
+                    failed++;
+                    System.err.println(workerId + ": " + result.file() + ": " + result.error());
+                } else if (result.found()) {
+                    found++;
+                    entries.add(new HistoryEntry(HISTORY_ACTION, false,
+                            result.historyType(), result.text(), HistoryManager.timestamp()));
+                }
+            }
+
+            if (current.get() == null) {
+                // the results are the same whoever finishes first, so they are still written
+                System.err.println(workerId + ": lease on " + lease.chunk() + " was taken over; writing results anyway");
+            }
+            ScanJob.ChunkStats stats = new ScanJob.ChunkStats(lease.chunk(), workerId, futures.size(), found, failed,
+                    start, System.currentTimeMillis(), decodeNanos);
+            job.writeResult(stats, entries);
+            return stats;
+        } finally {
+            ScanJob.Lease held = current.getAndSet(null);
+            if (held != null) job.release(held);
+        }
+    }
+
+    /** Heartbeat: extends the current lease */
+    private void renew() {
+        ScanJob.Lease lease = current.get();
+        if (lease == null) return;
+        try {
+            ScanJob.Lease renewed = job.renew(lease, leaseMillis);
+            // only replace the lease still being worked on; process() may have finished meanwhile
+            current.compareAndSet(lease, renewed);
+        } catch (IOException e) {
+            // the next heartbeat retries; the lease only lapses if renewals keep failing
+            System.err.println(workerId + ": could not renew lease on " + lease.chunk() + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        heartbeat.shutdownNow();
+        pipeline.close();
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.quickscan;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ScanPipeline
+ * - Decodes image files on a pool of background threads (one per core by default)
+ * - Each file goes through QRDecoder.decodeFile (and so the DecodeCache), PayloadCompressor.expand,
+ *   then ContentClassifier
+ * - Multi-QR sequence parts go to the StructuredAppendAssembler; only a completed sequence
+ *   is reported as found, so bare parts never reach history
+ * - Exposes queue depth and completion counts for progress displays
+ */
+public final class ScanPipeline implements AutoCloseable {
+
+    private static final String[] IMAGE_EXTENSIONS = {".png", ".jpg", ".jpeg", ".gif", ".bmp"};
+
+    /**
+     * Outcome of scanning one file; text is null when no code was found, on error, or when the
+     * image only held parts of an unfinished multi-QR sequence (then part says e.g. "Multi-QR part 2 of 5").
+     * sequence is the set id for images holding multi-QR parts, whether or not they completed it.
+     */
+    public record ScanResult(Path file, String text, ParsedContent parsed, String error, String part,
+                             String sequence, long nanos) {
+
+        public boolean found() {
+            return text != null;
+        }
+
+        public boolean failed() {
+            return error != null;
+        }
+
+        public boolean encrypted() {
+            return text != null && text.startsWith("ENCRYPTED:");
+        }
+
+        /** Type to record in history; encrypted codes are recorded as ciphertext (see HistoryEntry) */
+        public String historyType() {
+            return encrypted() ? HistoryEntry.ENCRYPTED_TYPE : parsed.type().label();
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+
+    public ScanPipeline() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ScanPipeline(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "scan-worker-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /** True for file names the scanner can read */
+    public static boolean isImageFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (String extension : IMAGE_EXTENSIONS) {
+            if (name.endsWith(extension)) return true;
+        }
+        return false;
+    }
+
+    /** Queues a file for decoding; the future never completes exceptionally */
+    public CompletableFuture<ScanResult> submit(Path file) {
+        inFlight.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> scan(file), executor)
+                .whenComplete((result, error) -> {
+                    inFlight.decrementAndGet();
+                    completed.incrementAndGet();
+                });
+    }
+
+    /** Decodes a file on the calling thread */
+    public static ScanResult scan(Path file) {
+        long start = System.nanoTime();
+        try {
+            String text = QRDecoder.decodeFile(file);
+            if (StructuredAppend.isPart(text)) {
+                return assemble(file, text, start);
+            }
+            return found(file, text, null, start);
+        } catch (IOException | RuntimeException e) {
+            return new ScanResult(file, null, null, e.getMessage(), null, null, System.nanoTime() - start);
+        }
+    }
+
+    private static ScanResult found(Path file, String text, String sequence, long start) {
+        text = PayloadCompressor.expand(text);
+        ParsedContent parsed = text == null ? null : ContentClassifier.getInstance().classify(text);
+        return new ScanResult(file, text, parsed, null, null, sequence, System.nanoTime() - start);
+    }
+
+    /** Feeds every part in the image to the shared assembler, as the scanner view does */
+    private static ScanResult assemble(Path file, String firstPart, long start) throws IOException {
+        List<String> texts = new ArrayList<>(QRDecoder.decodeAllFile(file));
+        if (!texts.contains(firstPart)) texts.add(firstPart);
+
+        StructuredAppendAssembler.Progress progress = StructuredAppendAssembler.getInstance().addAll(texts);
+        if (progress == null) {
+            return new ScanResult(file, null, null, "Invalid multi-QR part", null, null, System.nanoTime() - start);
+        }
+        if (progress.corrupt()) {
+            return new ScanResult(file, null, null, "Multi-QR sequence failed its checksum", null,
+                    progress.setId(), System.nanoTime() - start);
+        }
+        if (!progress.isComplete()) {
+            return new ScanResult(file, null, null, null,
+                    "Multi-QR part " + progress.received() + " of " + progress.total(), progress.setId(),
+                    System.nanoTime() - start);
+        }
+        return found(file, progress.payload(), progress.setId(), start);
+    }
+
+    /** Files submitted but not yet finished (queued plus decoding) */
+    public int queueDepth() {
+        return inFlight.get();
+    }
+
+    public long completedCount() {
+        return completed.get();
+    }
+
+    public int threadCount() {
+        return executor.getMaximumPoolSize();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.quickscan;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * StructuredAppend
+ * - Splits a payload that is too large for one symbol into a numbered sequence of parts
+ * - Each part is self-describing: QSA:<set id>:<index>:<total>:<chunk>
+ * - The set id is the CRC-32 of the whole payload, so reassembly can verify the result
+ *
+ * ZXing's encoder does not expose the QR structured-append mode header,
+ * so the sequence is carried in the text of each symbol instead. This also
+ * lifts the 16-symbol limit of the native header.
+ */
+public final class StructuredAppend {
+
+    public static final String PREFIX = "QSA:";
+
+    /** UTF-8 bytes of payload per symbol; keeps each part around QR version 18 at level M */
+    static final int MAX_CHUNK_BYTES = 480;
+
+    /** A parsed part */
+    public record Part(String setId, int index, int total, String chunk) { }
+
+    private StructuredAppend() { /* no instantiation */ }
+
+    public static boolean isPart(String text) {
+        return text != null && text.startsWith(PREFIX);
+    }
+
+    /** Splits the payload into part texts, in order; code points are never split */
+    public static List<String> split(String payload) {
+        String setId = checksum(payload);
+        List<String> chunks = new ArrayList<>();
+
+        int start = 0;
+        int bytes = 0;
+        for (int i = 0; i < payload.length(); ) {
+            int codePoint = payload.codePointAt(i);
+            int width = utf8Length(codePoint);
+            if (bytes + width > MAX_CHUNK_BYTES) {
+                chunks.add(payload.substring(start, i));
+                start = i;
+                bytes = 0;
+            }
+            bytes += width;
+            i += Character.charCount(codePoint);
+        }
+        chunks.add(payload.substring(start));
+
+        List<String> parts = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            parts.add(PREFIX + setId + ":" + (i + 1) + ":" + chunks.size() + ":" + chunks.get(i));
+        }
+        return parts;
+    }
+
+    /** Parses a part text, or returns null if it is not a well-formed part */
+    public static Part parse(String text) {
+        if (!isPart(text)) return null;
+        int idEnd = text.indexOf(':', PREFIX.length());
+        int indexEnd = idEnd < 0 ? -1 : text.indexOf(':', idEnd + 1);
+        int totalEnd = indexEnd < 0 ? -1 : text.indexOf(':', indexEnd + 1);
+        if (totalEnd < 0) return null;
+        try {
+            String setId = text.substring(PREFIX.length(), idEnd);
+            int index = Integer.parseInt(text.substring(idEnd + 1, indexEnd));
+            int total = Integer.parseInt(text.substring(indexEnd + 1, totalEnd));
+            if (total < 1 || index < 1 || index > total) return null;
+            return new Part(setId, index, total, text.substring(totalEnd + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** CRC-32 of the payload's UTF-8 bytes as 8 hex digits */
+    static String checksum(String payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.getBytes(StandardCharsets.UTF_8));
+        return String.format("%08x", crc.getValue());
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) return 1;
+        if (codePoint < 0x800) return 2;
+        if (codePoint < 0x10000) return 3;
+        return 4;
+    }
+}
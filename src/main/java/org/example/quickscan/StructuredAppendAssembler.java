@@ -0,0 +1,104 @@
+package org.example.quickscan;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * StructuredAppendAssembler
+ * - Collects StructuredAppend parts from one image or across several scans, in any order
+ * - Returns the payload once every part of a set has been seen and its checksum matches
+ */
+public final class StructuredAppendAssembler {
+
+    private static final int MAX_OPEN_SETS = 16;
+    private static StructuredAppendAssembler instance;
+
+    /** Progress of one set after adding a part; payload is non-null once complete */
+    public record Progress(String setId, int received, int total, String payload, boolean corrupt) {
+
+        public boolean isComplete() {
+            return payload != null;
+        }
+    }
+
+    private static final class PartialSet {
+        final String[] chunks;
+        int received;
+
+        PartialSet(int total) {
+            chunks = new String[total];
+        }
+    }
+
+    // oldest sets are dropped first when too many are open
+    private final Map<String, PartialSet> sets = new LinkedHashMap<>();
+
+    private StructuredAppendAssembler() { }
+
+    public static synchronized StructuredAppendAssembler getInstance() {
+        if (instance == null) {
+            instance = new StructuredAppendAssembler();
+        }
+        return instance;
+    }
+
+    /** Adds one part text; returns null if it is not a valid part */
+    public synchronized Progress add(String text) {
+        StructuredAppend.Part part = StructuredAppend.parse(text);
+        if (part == null) return null;
+
+        PartialSet set = sets.get(part.setId());
+        if (set == null || set.chunks.length != part.total()) {
+            set = new PartialSet(part.total());
+            sets.put(part.setId(), set);
+            if (sets.size() > MAX_OPEN_SETS) {
+                sets.remove(sets.keySet().iterator().next());
+            }
+        }
+
+        if (set.chunks[part.index() - 1] == null) {
+            set.chunks[part.index() - 1] = part.chunk();
+            set.received++;
+        }
+        if (set.received < set.chunks.length) {
+            return new Progress(part.setId(), set.received, set.chunks.length, null, false);
+        }
+
+        sets.remove(part.setId());
+        String payload = String.join("", set.chunks);
+        if (!StructuredAppend.checksum(payload).equals(part.setId())) {
+            return new Progress(part.setId(), set.received, set.chunks.length, null, true);
+        }
+        return new Progress(part.setId(), set.received, set.chunks.length, payload, false);
+    }
+
+    /**
+     * Adds every part among the texts decoded from one image, stopping once a set
+     * completes or fails its checksum; returns the last progress, or null if no text was a part
+     */
+    public synchronized Progress addAll(List<String> texts) {
+        Progress progress = null;
+        for (String text : texts) {
+            Progress added = add(text);
+            if (added == null) continue;
+            progress = added;
+            if (added.isComplete() || added.corrupt()) break;
+        }
+        return progress;
+    }
+
+    /** Indices (1-based) still missing from a set, for status messages */
+    public synchronized String missing(String setId) {
+        PartialSet set = sets.get(setId);
+        if (set == null) return "";
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < set.chunks.length; i++) {
+            if (set.chunks[i] == null) {
+                if (sb.length() > 0) sb.append(", ");
+                sb.append(i + 1);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.quickscan;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+
+/**
+ * VectorHybridBinarizer
+ * - HybridBinarizer's local block thresholding with the same output, bit for bit
+ * - Block statistics are gathered per column over each 8-row strip, and pixels are
+ *   thresholded a whole row at a time, both through PixelKernels (Vector API when available)
+ * - Like HybridBinarizer (which is final), it extends GlobalHistogramBinarizer, so row
+ *   binarization (getBlackRow, used by 1D readers) and images under 40 pixels behave the same
+ *
+ * HybridBinarizer clamps the last block of a row or column to the image edge, so it
+ * overlaps its neighbour; pixels there are black if either block's threshold says so.
+ * The per-column thresholds keep the larger of the two to match.
+ */
+public final class VectorHybridBinarizer extends GlobalHistogramBinarizer {
+
+    static final int BLOCK_SIZE = 8;
+    private static final int BLOCK_SIZE_POWER = 3;
+    private static final int MINIMUM_DIMENSION = BLOCK_SIZE * 5;
+    private static final int MIN_DYNAMIC_RANGE = 24;
+
+    private final PixelKernels kernels;
+    private BitMatrix matrix;
+
+    public VectorHybridBinarizer(LuminanceSource source) {
+        this(source, PixelKernels.INSTANCE);
+    }
+
+    VectorHybridBinarizer(LuminanceSource source, PixelKernels kernels) {
+        super(source);
+        this.kernels = kernels;
+    }
+
+    @Override
+    public BitMatrix getBlackMatrix() throws NotFoundException {
+        if (matrix != null) return matrix;
+
+        LuminanceSource source = getLuminanceSource();
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (width < MINIMUM_DIMENSION || height < MINIMUM_DIMENSION) {
+            matrix = super.getBlackMatrix();
+            return matrix;
+        }
+
+        byte[] luminances = source.getMatrix();
+        int subWidth = (width + BLOCK_SIZE - 1) >> BLOCK_SIZE_POWER;
+        int subHeight = (height + BLOCK_SIZE - 1) >> BLOCK_SIZE_POWER;
+        int[][] blackPoints = calculateBlackPoints(luminances, subWidth, subHeight, width, height);
+        matrix = threshold(luminances, subWidth, subHeight, width, height, blackPoints);
+        return matrix;
+    }
+
+    @Override
+    public Binarizer createBinarizer(LuminanceSource source) {
+        return new VectorHybridBinarizer(source, kernels);
+    }
+
+    /** ---------- BLOCK BLACK POINTS ---------- */
+
+    private int[][] calculateBlackPoints(byte[] luminances, int subWidth, int subHeight, int width, int height) {
+        int maxYOffset = height - BLOCK_SIZE;
+        int maxXOffset = width - BLOCK_SIZE;
+        int[][] blackPoints = new int[subHeight][subWidth];
+        short[] sums = new short[width];
+        byte[] mins = new byte[width];
+        byte[] maxes = new byte[width];
+
+        for (int y = 0; y < subHeight; y++) {
+            int yoffset = Math.min(y << BLOCK_SIZE_POWER, maxYOffset);
+            kernels.columnStats(luminances, yoffset * width, width, width, sums, mins, maxes);
+
+            for (int x = 0; x < subWidth; x++) {
+                int xoffset = Math.min(x << BLOCK_SIZE_POWER, maxXOffset);
+                int sum = 0;
+                int min = 0xFF;
+                int max = 0;
+                for (int c = xoffset; c < xoffset + BLOCK_SIZE; c++) {
+                    sum += sums[c];
+                    min = Math.min(min, mins[c] & 0xFF);
+                    max = Math.max(max, maxes[c] & 0xFF);
+                }
+
+                // HybridBinarizer stops tracking min / max once the range exceeds
+                // MIN_DYNAMIC_RANGE; only that comparison is used, so full values agree
+                int average = sum >> (BLOCK_SIZE_POWER * 2);
+                if (max - min <= MIN_DYNAMIC_RANGE) {
+                    // low contrast: assume the block is all light or all dark
+                    average = min / 2;
+                    if (y > 0 && x > 0) {
+                        int averageNeighborBlackPoint =
+                                (blackPoints[y - 1][x] + (2 * blackPoints[y][x - 1]) + blackPoints[y - 1][x - 1]) / 4;
+                        if (min < averageNeighborBlackPoint) {
+                            average = averageNeighborBlackPoint;
+                        }
+                    }
+                }
+                blackPoints[y][x] = average;
+            }
+        }
+        return blackPoints;
+    }
+
+    /** ---------- THRESHOLDING ---------- */
+
+    private BitMatrix threshold(byte[] luminances, int subWidth, int subHeight, int width, int height,
+                                int[][] blackPoints) {
+        int maxYOffset = height - BLOCK_SIZE;
+        int maxXOffset = width - BLOCK_SIZE;
+        BitMatrix result = new BitMatrix(width, height);
+        byte[] thresholds = new byte[width];
+        BitArray row = new BitArray(width);
+
+        for (int y = 0; y < subHeight; y++) {
+            int yoffset = Math.min(y << BLOCK_SIZE_POWER, maxYOffset);
+            int top = cap(y, subHeight - 3);
+
+            for (int x = 0; x < subWidth; x++) {
+                int xoffset = Math.min(x << BLOCK_SIZE_POWER, maxXOffset);
+                int left = cap(x, subWidth - 3);
+                int sum = 0;
+                for (int z = -2; z <= 2; z++) {
+                    int[] blackRow = blackPoints[top + z];
+                    sum += blackRow[left - 2] + blackRow[left - 1] + blackRow[left] + blackRow[left + 1] + blackRow[left + 2];
+                }
+                int average = sum / 25;
+
+                // columns before previousEnd were already set by the previous (overlapping) block
+                int previousEnd = x << BLOCK_SIZE_POWER;
+                for (int c = xoffset; c < xoffset + BLOCK_SIZE; c++) {
+                    thresholds[c] = (byte) (c < previousEnd ? Math.max(thresholds[c] & 0xFF, average) : average);
+                }
+            }
+
+            // rows before previousEnd were already thresholded by the previous (overlapping) strip
+            int previousEnd = y << BLOCK_SIZE_POWER;
+            for (int yy = yoffset; yy < yoffset + BLOCK_SIZE; yy++) {
+                if (yy < previousEnd) {
+                    row = result.getRow(yy, row);
+                } else {
+                    row.clear();
+                }
+                kernels.thresholdRow(luminances, yy * width, thresholds, width, row.getBitArray());
+                result.setRow(yy, row);
+            }
+        }
+        return result;
+    }
+
+    private static int cap(int value, int max) {
+        return value < 2 ? 2 : Math.min(value, max);
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.quickscan;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * PixelKernels on the jdk.incubator.vector API, at the CPU's preferred vector width.
+ * Only loaded by PixelKernels after it has checked that the module is present.
+ *
+ * Java bytes are signed, so unsigned luminance comparisons flip the top bit of
+ * both sides first (x ^ 0x80 orders 0..255 as -128..127).
+ */
+final class VectorPixelKernels extends PixelKernels {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    private static final int HALF = BYTES.length() / 2;
+
+    /** Bytes for one IntVector of luminance values; needs ints of at least 256 bits */
+    private static final VectorSpecies<Byte> LUMINANCE_BYTES = INTS.vectorBitSize() >= 256
+            ? VectorSpecies.of(byte.class, VectorShape.forBitSize(INTS.vectorBitSize() / 4))
+            : null;
+
+    private static final byte SIGN = (byte) 0x80;
+
+    static boolean isSupported() {
+        return LUMINANCE_BYTES != null && BYTES.length() <= 64;
+    }
+
+    @Override
+    void argbToLuminance(int[] argb, int argbOffset, byte[] luminances, int offset, int count, boolean hasAlpha) {
+        int bound = INTS.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += INTS.length()) {
+            IntVector pixel = IntVector.fromArray(INTS, argb, argbOffset + i);
+            if (hasAlpha) {
+                VectorMask<Integer> transparent = pixel.lanewise(VectorOperators.AND, 0xFF000000).eq(0);
+                pixel = pixel.blend(0xFFFFFFFF, transparent);
+            }
+            IntVector r = pixel.lanewise(VectorOperators.LSHR, 16).lanewise(VectorOperators.AND, 0xFF);
+            IntVector g = pixel.lanewise(VectorOperators.LSHR, 8).lanewise(VectorOperators.AND, 0xFF);
+            IntVector b = pixel.lanewise(VectorOperators.AND, 0xFF);
+            IntVector y = r.mul(306).add(g.mul(601)).add(b.mul(117)).add(0x200)
+                    .lanewise(VectorOperators.LSHR, 10);
+            ((ByteVector) y.convertShape(VectorOperators.I2B, LUMINANCE_BYTES, 0))
+                    .intoArray(luminances, offset + i);
+        }
+        ScalarPixelKernels.argbToLuminanceTail(argb, argbOffset, luminances, offset, i, count, hasAlpha);
+    }
+
+    @Override
+    void columnStats(byte[] luminances, int offset, int stride, int width, short[] sums, byte[] mins, byte[] maxes) {
+        int bound = BYTES.loopBound(width);
+        int x = 0;
+        for (; x < bound; x += BYTES.length()) {
+            ShortVector sumLow = ShortVector.zero(ShortVector.SPECIES_PREFERRED);
+            ShortVector sumHigh = sumLow;
+            ByteVector min = ByteVector.broadcast(BYTES, (byte) 0x7F);
+            ByteVector max = ByteVector.broadcast(BYTES, SIGN);
+
+            for (int y = 0, i = offset + x; y < VectorHybridBinarizer.BLOCK_SIZE; y++, i += stride) {
+                ByteVector pixel = ByteVector.fromArray(BYTES, luminances, i);
+                sumLow = sumLow.add((ShortVector) pixel.convert(VectorOperators.ZERO_EXTEND_B2S, 0));
+                sumHigh = sumHigh.add((ShortVector) pixel.convert(VectorOperators.ZERO_EXTEND_B2S, 1));
+                ByteVector ordered = pixel.lanewise(VectorOperators.XOR, SIGN);
+                min = min.min(ordered);
+                max = max.max(ordered);
+            }
+
+            sumLow.intoArray(sums, x);
+            sumHigh.intoArray(sums, x + HALF);
+            min.lanewise(VectorOperators.XOR, SIGN).intoArray(mins, x);
+            max.lanewise(VectorOperators.XOR, SIGN).intoArray(maxes, x);
+        }
+        ScalarPixelKernels.columnStatsTail(luminances, offset, stride, x, width, sums, mins, maxes);
+    }
+
+    @Override
+    void thresholdRow(byte[] luminances, int offset, byte[] thresholds, int width, int[] bits) {
+        int bound = BYTES.loopBound(width);
+        int x = 0;
+        for (; x < bound; x += BYTES.length()) {
+            ByteVector pixel = ByteVector.fromArray(BYTES, luminances, offset + x).lanewise(VectorOperators.XOR, SIGN);
+            ByteVector threshold = ByteVector.fromArray(BYTES, thresholds, x).lanewise(VectorOperators.XOR, SIGN);
+            long black = pixel.compare(VectorOperators.LE, threshold).toLong();
+
+            // x is a multiple of the lane count, so the mask lands on word boundaries
+            if (BYTES.length() == 64) {
+                bits[x >> 5] |= (int) black;
+                bits[(x >> 5) + 1] |= (int) (black >>> 32);
+            } else {
+                bits[x >> 5] |= (int) (black << (x & 0x1F));
+            }
+        }
+        ScalarPixelKernels.thresholdRowTail(luminances, offset, thresholds, x, width, bits);
+    }
+
+    @Override
+    String describe() {
+        return "Vector API, " + BYTES.vectorBitSize() + "-bit";
+    }
+}
@@ -0,0 +1,321 @@
+package org.example.quickscan;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * WatchFolderService
+ * - Watches a folder (and its subfolders) for new or modified images with a WatchService
+ * - Waits until a file's size and modification time stop changing before decoding it
+ * - Decodes through a ScanPipeline and records results in HistoryManager
+ * - Keeps a checkpoint file in the folder so a restart resumes without rescanning
+ *
+ * A file is identified by relative path, size and modification time, so a
+ * modified image is scanned again. Each result is written to history and
+ * then to the checkpoint under one lock, with the checkpoint forced to
+ * disk; only a crash between those two writes can repeat an entry.
+ * Images holding parts of an unfinished multi-QR sequence are checkpointed
+ * only when the sequence completes, so after a restart they are scanned
+ * again and the sequence can still be assembled.
+ */
+public final class WatchFolderService implements AutoCloseable {
+
+    public static final String HISTORY_ACTION = "Scanned (Watch Folder)";
+    private static final String CHECKPOINT_FILE_NAME = ".quickscan-checkpoint";
+    private static final long QUIET_PERIOD_MS = 1000;
+    private static final long STABILITY_CHECK_MS = 250;
+    /** As many unfinished sequences as the StructuredAppendAssembler keeps open */
+    private static final int MAX_PENDING_SEQUENCES = 16;
+
+    /** Running totals for the status display */
+    public record Stats(long processed, long found, long failed, int queueDepth, int waiting) { }
+
+    /** Size and modification time seen at the last stability check */
+    private record FileState(long size, long modified, long since) { }
+
+    private final Path folder;
+    private final Path checkpointFile;
+    private final Consumer<ScanPipeline.ScanResult> listener;
+
+    private final Set<String> checkpoint = new HashSet<>();
+    // keys of part-only images per unfinished sequence, checkpointed once it completes
+    private final Map<String, List<String>> pendingParts = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > MAX_PENDING_SEQUENCES;
+        }
+    };
+    private final Map<Path, FileState> waiting = new ConcurrentHashMap<>();
+    private final Set<String> submitted = ConcurrentHashMap.newKeySet();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong found = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private ScanPipeline pipeline;
+    private WatchService watchService;
+    private Thread watchThread;
+    private ScheduledExecutorService stabilizer;
+    private BufferedWriter checkpointWriter;
+    private FileChannel checkpointChannel;
+    private volatile boolean running;
+
+    /**
+     * @param listener called on a pipeline thread after each result has been recorded
+     */
+    public WatchFolderService(Path folder, Consumer<ScanPipeline.ScanResult> listener) {
+        this.folder = folder.toAbsolutePath().normalize();
+        this.checkpointFile = this.folder.resolve(CHECKPOINT_FILE_NAME);
+        this.listener = listener;
+    }
+
+    /** Loads the checkpoint, queues images added while stopped, and starts watching */
+    public synchronized void start() throws IOException {
+        if (running) return;
+        loadCheckpoint();
+
+        checkpointChannel = FileChannel.open(checkpointFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        checkpointWriter = new BufferedWriter(
+                new OutputStreamWriter(Channels.newOutputStream(checkpointChannel), StandardCharsets.UTF_8));
+
+        pipeline = new ScanPipeline();
+        watchService = folder.getFileSystem().newWatchService();
+        running = true;
+        try {
+            registerTree(watchService, folder);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+
+        stabilizer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "watch-stabilizer");
+            t.setDaemon(true);
+            return t;
+        });
+        stabilizer.scheduleWithFixedDelay(this::submitStableFiles, STABILITY_CHECK_MS, STABILITY_CHECK_MS,
+                TimeUnit.MILLISECONDS);
+
+        WatchService service = watchService;
+        watchThread = new Thread(() -> watchLoop(service), "watch-folder");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Path getFolder() {
+        return folder;
+    }
+
+    public Stats stats() {
+        ScanPipeline current = pipeline;
+        int queueDepth = current == null ? 0 : current.queueDepth();
+        return new Stats(processed.get(), found.get(), failed.get(), queueDepth, waiting.size());
+    }
+
+    /** ---------- CHECKPOINT ---------- */
+    private void loadCheckpoint() throws IOException {
+        checkpoint.clear();
+        if (!Files.exists(checkpointFile)) return;
+        try (Stream<String> lines = Files.lines(checkpointFile, StandardCharsets.UTF_8)) {
+            lines.filter(line -> !line.isBlank()).forEach(checkpoint::add);
+        }
+    }
+
+    /** tab-separated size, modification time and relative path; also used as the checkpoint line */
+    private String fileKey(Path file, long size, long modified) {
+        return size + "\t" + modified + "\t" + folder.relativize(file).toString().replace('\\', '/');
+    }
+
+    /** ---------- WATCHING ---------- */
+
+    /** Registers every directory under root and notes images not yet in the checkpoint */
+    private void registerTree(WatchService service, Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                dir.register(service,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                noteChanged(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void watchLoop(WatchService service) {
+        while (running) {
+            WatchKey key;
+            try {
+                key = service.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path dir = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                try {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // events were dropped; walk everything again, the checkpoint filters repeats
+                        registerTree(service, folder);
+                        continue;
+                    }
+                    Path changed = dir.resolve((Path) event.context());
+                    if (Files.isDirectory(changed)) {
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) registerTree(service, changed);
+                    } else {
+                        noteChanged(changed);
+                    }
+                } catch (IOException | ClosedWatchServiceException e) {
+                    if (running) System.err.println("Watch folder error: " + e.getMessage());
+                }
+            }
+            if (!key.reset() && dir.equals(folder)) {
+                running = false;
+            }
+        }
+    }
+
+    /** Starts (or restarts) the quiet period for a file that is being written */
+    private void noteChanged(Path file) {
+        if (ScanPipeline.isImageFile(file)) {
+            waiting.put(file, new FileState(-1, -1, System.currentTimeMillis()));
+        }
+    }
+
+    /** ---------- STABILITY ---------- */
+
+    /** Submits files whose size and modification time have not changed for the quiet period */
+    private void submitStableFiles() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Path, FileState> entry : waiting.entrySet()) {
+            Path file = entry.getKey();
+            FileState previous = entry.getValue();
+            try {
+                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                long size = attrs.size();
+                long modified = attrs.lastModifiedTime().toMillis();
+
+                if (size != previous.size() || modified != previous.modified()) {
+                    waiting.put(file, new FileState(size, modified, now));
+                    continue;
+                }
+                if (now - previous.since() < QUIET_PERIOD_MS || size == 0) continue;
+
+                waiting.remove(file, previous);
+                String key = fileKey(file, size, modified);
+                boolean done;
+                synchronized (this) {
+                    done = checkpoint.contains(key);
+                }
+                ScanPipeline current = pipeline;
+                if (!done && current != null && submitted.add(key)) {
+                    current.submit(file).thenAccept(result -> record(result, key));
+                }
+            } catch (NoSuchFileException e) {
+                waiting.remove(file);
+            } catch (IOException e) {
+                // not readable yet (e.g. still locked by the syncing app); try again next round
+            }
+        }
+    }
+
+    /** ---------- RECORDING ---------- */
+    private void record(ScanPipeline.ScanResult result, String key) {
+        try {
+            if (result.failed()) {
+                // unreadable images are left out of the checkpoint so a later write retries them
+                failed.incrementAndGet();
+                return;
+            }
+            synchronized (this) {
+                if (!running || checkpoint.contains(key)) return;
+                if (result.part() != null) {
+                    // the assembler only lives in memory: leave the image for the next start to rescan
+                    pendingParts.computeIfAbsent(result.sequence(), id -> new ArrayList<>()).add(key);
+                    processed.incrementAndGet();
+                    return;
+                }
+                if (result.found()) {
+                    found.incrementAndGet();
+                    HistoryManager.getInstance().addHistoryEntry(
+                            HISTORY_ACTION,
+                            result.historyType(),
+                            result.text(),
+                            false
+                    );
+                }
+                List<String> keys = new ArrayList<>();
+                if (result.sequence() != null) {
+                    List<String> parts = pendingParts.remove(result.sequence());
+                    if (parts != null) keys.addAll(parts);
+                }
+                keys.add(key);
+                for (String done : keys) {
+                    checkpointWriter.write(done);
+                    checkpointWriter.newLine();
+                }
+                checkpointWriter.flush();
+                checkpointChannel.force(false);
+                checkpoint.addAll(keys);
+            }
+            processed.incrementAndGet();
+        } catch (IOException e) {
+            System.err.println("Error writing watch checkpoint: " + e.getMessage());
+        } finally {
+            submitted.remove(key);
+            if (listener != null) listener.accept(result);
+        }
+    }
+
+    /** Stops watching; files still being decoded are dropped and picked up on the next start */
+    @Override
+    public synchronized void close() {
+        if (!running && watchService == null) return;
+        running = false;
+        if (stabilizer != null) stabilizer.shutdownNow();
+        if (pipeline != null) pipeline.close();
+        pipeline = null;
+        try {
+            if (watchService != null) watchService.close();
+            if (checkpointWriter != null) checkpointWriter.close();
+        } catch (IOException e) {
+            System.err.println("Error closing watch folder: " + e.getMessage());
+        }
+        watchService = null;
+        waiting.clear();
+        submitted.clear();
+        pendingParts.clear();
+    }
+}
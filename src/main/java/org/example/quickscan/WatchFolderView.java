@@ -0,0 +1,198 @@
+package org.example.quickscan;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.DirectoryChooser;
+import javafx.util.Duration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * WatchFolderView
+ * - Starts and stops a WatchFolderService on a chosen folder
+ * - Shows processed / found / failed counts, throughput and queue depth once a second
+ * - Lists the most recent results
+ */
+public class WatchFolderView extends VBox {
+
+    private static final int MAX_RECENT = 200;
+
+    private final MainView mainView;
+    private final Label folderLabel;
+    private final Button startButton;
+    private final Button stopButton;
+    private final Label statsLabel;
+    private final Label statusLabel;
+    private final ListView<String> recentList;
+    private final Timeline statsTimeline;
+    private final Queue<String> pendingResults = new ConcurrentLinkedQueue<>();
+
+    private File selectedFolder;
+    private WatchFolderService service;
+    private long lastProcessed;
+    private long lastTick;
+
+    public WatchFolderView(MainView mainView) {
+        this.mainView = mainView;
+        setSpacing(20);
+        setPadding(new Insets(30));
+        setAlignment(Pos.TOP_CENTER);
+        getStyleClass().add("watch-view");
+
+        // Header
+        Label headerLabel = new Label("Watch Folder");
+        headerLabel.getStyleClass().add("section-header");
+
+        Button backButton = new Button("Back");
+        backButton.getStyleClass().add("back-button");
+        backButton.setOnAction(e -> mainView.showMainOptions());
+
+        HBox headerBox = new HBox(10, backButton, headerLabel);
+        headerBox.setAlignment(Pos.CENTER_LEFT);
+
+        // Folder selection and controls
+        Button chooseButton = new Button("Choose Folder");
+        chooseButton.getStyleClass().add("action-button");
+        chooseButton.setOnAction(e -> chooseFolder());
+
+        folderLabel = new Label("No folder selected");
+
+        startButton = new Button("Start Watching");
+        startButton.getStyleClass().add("action-button");
+        startButton.setDisable(true);
+        startButton.setOnAction(e -> startWatching());
+
+        stopButton = new Button("Stop");
+        stopButton.getStyleClass().add("action-button");
+        stopButton.setDisable(true);
+        stopButton.setOnAction(e -> stopWatching());
+
+        HBox controlBox = new HBox(15, chooseButton, folderLabel, startButton, stopButton);
+        controlBox.setAlignment(Pos.CENTER);
+
+        // Stats and results
+        statsLabel = new Label("");
+        statsLabel.setStyle("-fx-font-size: 14px;");
+
+        recentList = new ListView<>();
+        VBox.setVgrow(recentList, Priority.ALWAYS);
+
+        statusLabel = new Label("");
+        statusLabel.getStyleClass().add("status-label");
+
+        getChildren().addAll(headerBox, new Separator(), controlBox, statsLabel, recentList, statusLabel);
+
+        statsTimeline = new Timeline(new KeyFrame(Duration.seconds(1), e -> refreshStats()));
+        statsTimeline.setCycleCount(Timeline.INDEFINITE);
+    }
+
+    /** ---------- CONTROLS ---------- */
+    private void chooseFolder() {
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Select Folder to Watch");
+        if (selectedFolder != null) chooser.setInitialDirectory(selectedFolder);
+        File folder = chooser.showDialog(getScene().getWindow());
+        if (folder != null) {
+            selectedFolder = folder;
+            folderLabel.setText(folder.getAbsolutePath());
+            startButton.setDisable(service != null && service.isRunning());
+        }
+    }
+
+    private void startWatching() {
+        if (selectedFolder == null) return;
+
+        // results are recorded from background threads, so the location must be chosen first
+        HistoryManager.getInstance().ensureHistoryLocationSet(this);
+
+        service = new WatchFolderService(selectedFolder.toPath(), this::onResult);
+        try {
+            service.start();
+        } catch (IOException e) {
+            service = null;
+            showStatus("Error starting watch: " + e.getMessage(), true);
+            return;
+        }
+
+        lastProcessed = 0;
+        lastTick = System.nanoTime();
+        statsTimeline.play();
+        startButton.setDisable(true);
+        stopButton.setDisable(false);
+        showStatus("Watching " + selectedFolder.getName() + " 👀", false);
+    }
+
+    private void stopWatching() {
+        if (service != null) {
+            service.close();
+        }
+        statsTimeline.stop();
+        refreshStats();
+        service = null;
+        startButton.setDisable(selectedFolder == null);
+        stopButton.setDisable(true);
+        showStatus("Stopped watching", false);
+    }
+
+    /** ---------- RESULTS ---------- */
+
+    /** Called on pipeline threads; results are shown on the next stats tick */
+    private void onResult(ScanPipeline.ScanResult result) {
+        String name = result.file().getFileName().toString();
+        String line;
+        if (result.failed()) {
+            line = "❌ " + name + " — " + result.error();
+        } else if (result.part() != null) {
+            line = "… " + name + " — " + result.part();
+        } else if (!result.found()) {
+            line = "— " + name + " — no QR code";
+        } else {
+            String text = result.encrypted() ? "(encrypted)" : result.text().replace('\n', ' ');
+            line = "✅ " + name + " — " + result.parsed().type().label() + ": " + text;
+        }
+        pendingResults.add(line);
+    }
+
+    private void refreshStats() {
+        if (service == null) return;
+
+        String line;
+        while ((line = pendingResults.poll()) != null) {
+            recentList.getItems().add(0, line);
+        }
+        if (recentList.getItems().size() > MAX_RECENT) {
+            recentList.getItems().remove(MAX_RECENT, recentList.getItems().size());
+        }
+
+        WatchFolderService.Stats stats = service.stats();
+        long now = System.nanoTime();
+        double seconds = (now - lastTick) / 1e9;
+        double throughput = seconds > 0 ? (stats.processed() - lastProcessed) / seconds : 0;
+        lastProcessed = stats.processed();
+        lastTick = now;
+
+        statsLabel.setText(String.format(
+                "Processed: %,d   Found: %,d   Failed: %,d   Throughput: %.1f img/s   Queue: %d decoding, %d settling",
+                stats.processed(), stats.found(), stats.failed(), throughput, stats.queueDepth(), stats.waiting()));
+
+        if (!service.isRunning()) {
+            Platform.runLater(this::stopWatching);
+        }
+    }
+
+    private void showStatus(String msg, boolean error) {
+        statusLabel.setText(msg);
+        statusLabel.getStyleClass().removeAll("error-text", "success-text");
+        statusLabel.getStyleClass().add(error ? "error-text" : "success-text");
+    }
+}
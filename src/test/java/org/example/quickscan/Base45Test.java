@@ -0,0 +1,65 @@
+package org.example.quickscan;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class Base45Test {
+
+    @Test
+    void encodesRfcExamples() {
+        // RFC 9285, section 4.3
+        assertEquals("BB8", Base45.encode(ascii("AB")));
+        assertEquals("%69 VD92EX0", Base45.encode(ascii("Hello!!")));
+        assertEquals("UJCLQE7W581", Base45.encode(ascii("base-45")));
+        assertEquals("QED8WEX0", Base45.encode(ascii("ietf!")));
+        assertArrayEquals(ascii("ietf!"), Base45.decode("QED8WEX0"));
+    }
+
+    @Test
+    void roundTripsEveryLength() {
+        Random random = new Random(45);
+        for (int length = 0; length <= 64; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            String encoded = Base45.encode(data);
+            // 2 bytes become 3 characters, a trailing single byte 2
+            assertEquals(length / 2 * 3 + length % 2 * 2, encoded.length());
+            assertArrayEquals(data, Base45.decode(encoded), "length " + length);
+        }
+    }
+
+    @Test
+    void handlesLargestValues() {
+        assertEquals("FGW", Base45.encode(new byte[]{(byte) 0xFF, (byte) 0xFF}));
+        assertArrayEquals(new byte[]{(byte) 0xFF, (byte) 0xFF}, Base45.decode("FGW"));
+        assertEquals("U5", Base45.encode(new byte[]{(byte) 0xFF}));
+        assertArrayEquals(new byte[]{(byte) 0xFF}, Base45.decode("U5"));
+        assertArrayEquals(new byte[]{0, 0}, Base45.decode("000"));
+    }
+
+    @Test
+    void rejectsValuesAboveTheBoundary() {
+        // 0xFFFF + 1 and 0xFF + 1
+        assertThrows(IllegalArgumentException.class, () -> Base45.decode("GGW"));
+        assertThrows(IllegalArgumentException.class, () -> Base45.decode(":::"));
+        assertThrows(IllegalArgumentException.class, () -> Base45.decode("V5"));
+    }
+
+    @Test
+    void rejectsMalformedText() {
+        assertThrows(IllegalArgumentException.class, () -> Base45.decode("A"));
+        assertThrows(IllegalArgumentException.class, () -> Base45.decode("BB8A"));
+        assertThrows(IllegalArgumentException.class, () -> Base45.decode("bb8"));
+        assertThrows(IllegalArgumentException.class, () -> Base45.decode("BBé"));
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
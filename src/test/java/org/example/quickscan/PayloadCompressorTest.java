@@ -0,0 +1,84 @@
+package org.example.quickscan;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PayloadCompressorTest {
+
+    private static final List<String> PAYLOADS = List.of(
+            "",
+            "a",
+            "https://example.com/products/12345?ref=qr&utm_source=qr",
+            "WIFI:T:WPA;S:Office Network;P:correct horse battery staple;H:false;;",
+            "BEGIN:VCARD\nVERSION:3.0\nFN:Jörg Müller\nTEL;TYPE=CELL:+4930123456\nEND:VCARD\n",
+            "{\"id\":7,\"name\":\"日本語のテキスト\",\"enabled\":true,\"emoji\":\"😀\"}",
+            "x".repeat(5000)
+    );
+
+    @Test
+    void roundTrips() {
+        for (String payload : PAYLOADS) {
+            String compressed = PayloadCompressor.compress(payload);
+            assertTrue(PayloadCompressor.isCompressed(compressed));
+            // Base45 keeps the whole code in the alphanumeric mode
+            assertTrue(compressed.substring(PayloadCompressor.PREFIX.length()).matches("[0-9A-Z $%*+\\-./:]*"));
+            assertEquals(payload, PayloadCompressor.expand(compressed));
+            assertEquals(payload, PayloadCompressor.decompress(compressed));
+        }
+    }
+
+    @Test
+    void passesOtherTextThrough() {
+        assertNull(PayloadCompressor.expand(null));
+        assertEquals("https://example.com", PayloadCompressor.expand("https://example.com"));
+        assertEquals("qz:lowercase is not the prefix", PayloadCompressor.expand("qz:lowercase is not the prefix"));
+    }
+
+    @Test
+    void showsThirdPartyQzTextAsIs() {
+        // not Base45 at all
+        assertEquals("QZ:Quiz night, table 4", PayloadCompressor.expand("QZ:Quiz night, table 4"));
+        // valid Base45, but not a deflate stream
+        String notDeflate = PayloadCompressor.PREFIX + Base45.encode(new byte[]{(byte) 0xFF, (byte) 0xFF, 0x12});
+        assertEquals(notDeflate, PayloadCompressor.expand(notDeflate));
+        assertThrows(IllegalArgumentException.class, () -> PayloadCompressor.decompress("QZ:Quiz night, table 4"));
+    }
+
+    @Test
+    void returnsDamagedPayloadsUnchanged() {
+        String compressed = PayloadCompressor.compress(PAYLOADS.get(4));
+        // drop whole Base45 triplets so the text still decodes but the stream is cut short
+        String truncated = compressed.substring(0, compressed.length() - 6);
+        assertEquals(truncated, PayloadCompressor.expand(truncated));
+        assertThrows(IllegalArgumentException.class, () -> PayloadCompressor.decompress(truncated));
+    }
+
+    @Test
+    void refusesExpansionBeyondTheLimit() {
+        String bomb = PayloadCompressor.compress("0".repeat(2 << 20));
+        assertEquals(bomb, PayloadCompressor.expand(bomb));
+        assertThrows(IllegalArgumentException.class, () -> PayloadCompressor.decompress(bomb));
+    }
+
+    @Test
+    void choosesTheSmallerVersion() {
+        String repetitive = "https://example.com/" + "abc/".repeat(150);
+        PayloadCompressor.Choice compressed = PayloadCompressor.choose(repetitive, PayloadCompressor.compress(repetitive));
+        assertTrue(compressed.compressed());
+        assertTrue(compressed.chosenVersion() < compressed.rawVersion());
+        assertTrue(compressed.modulesSaved() > 0);
+
+        // ties keep the raw form
+        PayloadCompressor.Choice raw = PayloadCompressor.choose("hi", PayloadCompressor.compress("hi"));
+        assertFalse(raw.compressed());
+        assertEquals("hi", raw.payload());
+        assertEquals(0, raw.modulesSaved());
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.quickscan;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.HybridBinarizer;
+import org.junit.jupiter.api.Test;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * QRDecoder (RasterLuminanceSource + VectorHybridBinarizer) must decode exactly what
+ * ZXing's BufferedImageLuminanceSource + HybridBinarizer decode with the same hints.
+ */
+class QRDecoderEquivalenceTest {
+
+    private static final String EAN = "4006381333931";
+
+    private static final int[] IMAGE_TYPES = {
+            BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_3BYTE_BGR,
+            BufferedImage.TYPE_BYTE_GRAY
+    };
+
+    @Test
+    void decodesLikeZxing() throws Exception {
+        for (BufferedImage image : images()) {
+            assertEquals(zxingDecode(image), QRDecoder.decode(image),
+                    "image " + image.getWidth() + "x" + image.getHeight() + " type " + image.getType());
+        }
+    }
+
+    @Test
+    void decodesVerticalOneDimensionalCodes() throws Exception {
+        BufferedImage upright = barcode(BarcodeFormat.EAN_13, EAN);
+        for (int type : IMAGE_TYPES) {
+            BufferedImage rotated = convert(rotate(upright), type);
+            assertEquals(EAN, zxingDecode(rotated));
+            assertEquals(EAN, QRDecoder.decode(rotated), "type " + type);
+        }
+    }
+
+    @Test
+    void rotationMatchesZxingSource() throws Exception {
+        BufferedImage image = convert(rotate(barcode(BarcodeFormat.CODE_128, "QuickScan-0042")),
+                BufferedImage.TYPE_INT_RGB);
+        LuminanceSource expected = new BufferedImageLuminanceSource(image).crop(3, 5, 57, 101);
+        LuminanceSource actual = new RasterLuminanceSource(image).crop(3, 5, 57, 101);
+
+        assertLuminanceEquals(expected.rotateCounterClockwise(), actual.rotateCounterClockwise());
+        assertLuminanceEquals(expected.rotateCounterClockwise().rotateCounterClockwise(),
+                actual.rotateCounterClockwise().rotateCounterClockwise());
+        assertLuminanceEquals(expected.rotateCounterClockwise45(), actual.rotateCounterClockwise45());
+    }
+
+    private static void assertLuminanceEquals(LuminanceSource expected, LuminanceSource actual) {
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        assertArrayEquals(expected.getMatrix(), actual.getMatrix());
+    }
+
+    /** ---------- IMAGES ---------- */
+
+    private static List<BufferedImage> images() throws Exception {
+        List<BufferedImage> images = new ArrayList<>();
+        BufferedImage qr = QRCodeRenderer.render(
+                QRCodeRenderer.encode("https://example.com/products/12345?ref=qr", 300), 0x1A237E, 0xFFF8E1);
+        BufferedImage ean = barcode(BarcodeFormat.EAN_13, EAN);
+        BufferedImage code128 = barcode(BarcodeFormat.CODE_128, "QuickScan-0042");
+        for (BufferedImage source : List.of(qr, ean, code128, rotate(ean), rotate(code128), rotate(qr))) {
+            for (int type : IMAGE_TYPES) {
+                images.add(convert(source, type));
+            }
+        }
+        // an image without any code
+        images.add(new BufferedImage(120, 80, BufferedImage.TYPE_INT_RGB));
+        return images;
+    }
+
+    private static BufferedImage barcode(BarcodeFormat format, String text) throws Exception {
+        return MatrixToImageWriter.toBufferedImage(new MultiFormatWriter().encode(text, format, 300, 120));
+    }
+
+    /** 90 degrees clockwise, so the decoder has to rotate back */
+    private static BufferedImage rotate(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        BufferedImage rotated = new BufferedImage(height, width, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                rotated.setRGB(height - 1 - y, x, image.getRGB(x, y));
+            }
+        }
+        return rotated;
+    }
+
+    private static BufferedImage convert(BufferedImage source, int type) {
+        BufferedImage image = new BufferedImage(source.getWidth(), source.getHeight(), type);
+        Graphics2D g = image.createGraphics();
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return image;
+    }
+
+    private static String zxingDecode(BufferedImage image) {
+        try {
+            BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(new BufferedImageLuminanceSource(image)));
+            return new MultiFormatReader().decode(bitmap, Map.of(DecodeHintType.TRY_HARDER, Boolean.TRUE)).getText();
+        } catch (NotFoundException e) {
+            return null;
+        }
+    }
+}